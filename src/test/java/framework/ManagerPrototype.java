@@ -18,6 +18,7 @@ import org.openqa.selenium.remote.RemoteWebDriver;
 import org.testng.Assert;
 import test.java.framework.helpers.CommonHelper;
 import test.java.framework.helpers.CucumberHelperPrototype;
+import test.java.framework.manager.scheduler.AdaptiveConcurrency;
 
 import java.io.File;
 import java.io.IOException;
@@ -26,8 +27,9 @@ import java.io.StringWriter;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.util.Arrays;
-import java.util.HashMap;
+import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 
 public abstract class ManagerPrototype {
@@ -41,7 +43,7 @@ public abstract class ManagerPrototype {
     private static final Object propertiesLock = new Object();
 
     private SessionPrototype session;
-    private static HashMap<Thread, SessionPrototype> sessions = new HashMap<>();
+    private static Map<Thread, SessionPrototype> sessions = new ConcurrentHashMap<>();
 
     //Number of tries to launch browser
     private int tries = 0;
@@ -133,11 +135,18 @@ public abstract class ManagerPrototype {
     }
 
     public void startDriver() {
+        long start = System.nanoTime();
         try {
             launchDriver();
         } catch (MalformedURLException e) {
+            AdaptiveConcurrency.getInstance().driverFailed();
             fail("Domain name / URL provided is invalid!\n".concat(e.getMessage()));
+        } catch (Throwable e) {
+            //Grid saturated or browser crashed, fewer threads should run
+            AdaptiveConcurrency.getInstance().driverFailed();
+            throw e;
         }
+        AdaptiveConcurrency.getInstance().driverStarted(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
     }
 
     /**
@@ -397,10 +406,31 @@ public abstract class ManagerPrototype {
      * @param instance session instance
      */
     public void shutDown(SessionPrototype instance) {
+        quit(instance);
+    }
+
+    private static void quit(SessionPrototype instance) {
         instance.getDriverInstance().quit();
         instance.setDriverInstance(null);
     }
 
+    /**
+     * Closes WebDriver instance of the current thread's session, if it has one, to free its grid slot.
+     * Next scenario of the thread starts a new one
+     */
+    public static void quitCurrentDriver() {
+        SessionPrototype current = sessions.get(Thread.currentThread());
+        if (current == null || !current.isDriverReady()) {
+            return;
+        }
+        try {
+            quit(current);
+        } catch (Throwable e) {
+            //Browser is gone already, a new one is started anyway
+            current.setDriverInstance(null);
+        }
+    }
+
     /**
      * Closes current WebDriver instance
      */
@@ -2,15 +2,19 @@ package test.java.framework.manager;
 
 import gherkin.formatter.Formatter;
 import gherkin.formatter.Reporter;
+import test.java.framework.ManagerPrototype;
 import test.java.framework.manager.cucumber.runtime.*;
 import test.java.framework.manager.cucumber.runtime.Runtime;
 import test.java.framework.manager.cucumber.runtime.io.ResourceLoader;
 import test.java.framework.manager.cucumber.runtime.model.CucumberFeature;
+import test.java.framework.manager.scheduler.AdaptiveConcurrency;
+import test.java.framework.manager.scheduler.ScenarioQueue;
+import test.java.framework.manager.scheduler.ScenarioTask;
+import test.java.framework.manager.scheduler.Tier;
 
 import java.io.IOException;
 import java.util.Collection;
-import java.util.HashSet;
-import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
 public class ConcurrentRuntime extends Runtime {
 
@@ -18,14 +22,15 @@ public class ConcurrentRuntime extends Runtime {
     private final RuntimeOptions runtimeOptions;
     private final ResourceLoader resourceLoader;
 
-    private static Set<String> featureNames = new HashSet<>();
-    private static final Object runnerLock = new Object();
-
+    /**
+     * Uses the backends and glue shared by all threads, the classpath is only scanned by the first runtime.
+     */
     public ConcurrentRuntime(ResourceLoader resourceLoader, ClassFinder classFinder, ClassLoader classLoader, RuntimeOptions runtimeOptions) {
-        super(resourceLoader, classFinder, classLoader, runtimeOptions);
-        this.classLoader = classLoader;
-        this.runtimeOptions = runtimeOptions;
-        this.resourceLoader = resourceLoader;
+        this(resourceLoader, classLoader, SharedGlue.get(resourceLoader, classFinder, classLoader, runtimeOptions.getGlue()), runtimeOptions);
+    }
+
+    private ConcurrentRuntime(ResourceLoader resourceLoader, ClassLoader classLoader, SharedGlue sharedGlue, RuntimeOptions runtimeOptions) {
+        this(resourceLoader, classLoader, sharedGlue.getBackends(), runtimeOptions, sharedGlue.getGlue());
     }
 
     public ConcurrentRuntime(ResourceLoader resourceLoader, ClassLoader classLoader, Collection<? extends Backend> backends, RuntimeOptions runtimeOptions) {
@@ -43,31 +48,64 @@ public class ConcurrentRuntime extends Runtime {
         this.resourceLoader = resourceLoader;
     }
 
+    /**
+     * Pulls scenarios from the queue shared by all threads until it is empty.
+     * Each thread reports to its own formatters, a feature is reported by every thread that ran any of its scenarios.
+     * Threads over the limit of {@link AdaptiveConcurrency} quit their browser and wait before taking the next scenario.
+     */
     @Override
     public void run() throws IOException {
-        runtimeOptions.cucumberFeatures(resourceLoader).forEach(this::run);
+        run(Tier.BROWSER);
+    }
+
+    /**
+     * Same as {@link #run()} for a thread of the given tier. API threads only run @no-driver scenarios
+     * and are not limited by {@link AdaptiveConcurrency}, which is sized for browsers.
+     *
+     * @param tier tier of the current thread
+     */
+    public void run(Tier tier) throws IOException {
+        ScenarioQueue queue = ScenarioQueue.getInstance(() -> runtimeOptions.cucumberFeatures(resourceLoader));
         Formatter formatter = runtimeOptions.formatter(classLoader);
+        Reporter reporter = runtimeOptions.reporter(classLoader);
 
-        formatter.done();
-        formatter.close();
-        printSummary();
-    }
+        AdaptiveConcurrency concurrency = AdaptiveConcurrency.getInstance();
 
-    private void run(CucumberFeature cucumberFeature) {
-        String feature = cucumberFeature.getPath();
-        boolean firstRun;
-        synchronized (runnerLock) {
-            firstRun = !featureNames.contains(feature);
-            featureNames.add(feature);
+        CucumberFeature currentFeature = null;
+        while (true) {
+            if (tier == Tier.BROWSER) {
+                concurrency.enter(ManagerPrototype::quitCurrentDriver);
+            }
+            try {
+                ScenarioTask task = queue.poll(tier);
+                if (task == null) {
+                    break;
+                }
+                if (task.reportsFeature() && task.getFeature() != currentFeature) {
+                    if (currentFeature != null) {
+                        formatter.eof();
+                    }
+                    currentFeature = task.getFeature();
+                    formatter.uri(currentFeature.getPath());
+                    formatter.feature(currentFeature.getGherkinFeature());
+                }
+                long start = System.nanoTime();
+                task.run(formatter, reporter, this);
+                queue.completed(task, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            } finally {
+                if (tier == Tier.BROWSER) {
+                    concurrency.exit();
+                }
+            }
         }
-        if (firstRun) {
-            Formatter formatter = runtimeOptions.formatter(classLoader);
-            Reporter reporter = runtimeOptions.reporter(classLoader);
-
-            System.out.println("Starting to run scenarios for the feature: '" + feature + "'");
-            cucumberFeature.run(formatter, reporter, this);
-            System.out.println("Scenarios completed for the feature: '" + feature + "'");
+        if (currentFeature != null) {
+            formatter.eof();
         }
+        queue.saveHistory();
+
+        formatter.done();
+        formatter.close();
+        printSummary();
     }
 
 }
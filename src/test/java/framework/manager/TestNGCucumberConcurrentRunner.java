@@ -9,6 +9,7 @@ import test.java.framework.manager.cucumber.runtime.RuntimeOptionsFactory;
 import test.java.framework.manager.cucumber.runtime.io.MultiLoader;
 import test.java.framework.manager.cucumber.runtime.io.ResourceLoader;
 import test.java.framework.manager.cucumber.runtime.io.ResourceLoaderClassFinder;
+import test.java.framework.manager.scheduler.Tier;
 
 import java.io.IOException;
 
@@ -55,8 +56,17 @@ public class TestNGCucumberConcurrentRunner {
      * Run the Cucumber features
      */
     public void runCukes() {
+        runCukes(Tier.BROWSER);
+    }
+
+    /**
+     * Run the Cucumber features the current thread's tier may run
+     *
+     * @param tier tier of the current thread
+     */
+    public void runCukes(Tier tier) {
         try {
-            runtime.run();
+            runtime.run(tier);
         } catch (IOException ex) {
             throw new RuntimeException(ex);
         }
@@ -10,16 +10,23 @@ import test.java.framework.ManagerPrototype;
 import test.java.framework.SessionPrototype;
 import test.java.framework.helpers.OptionalSteps;
 import test.java.framework.manager.cucumber.api.CucumberOptions;
+import test.java.framework.manager.cucumber.runtime.Runtime;
 import test.java.framework.manager.cucumber.runtime.RuntimeOptions;
 import test.java.framework.manager.cucumber.runtime.model.StepContainer;
+import test.java.framework.manager.scheduler.ApiTier;
+import test.java.framework.manager.scheduler.ScenarioQueue;
+import test.java.framework.manager.scheduler.Tier;
 
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Method;
 import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
 
 @CucumberOptions
 public abstract class TestNGCucumberListenerPrototype implements IHookable, IAnnotationTransformer {
 
+    private static final AtomicInteger finishedRunners = new AtomicInteger();
+
     private ManagerPrototype manager;
 
     /**
@@ -46,19 +53,36 @@ public abstract class TestNGCucumberListenerPrototype implements IHookable, IAnn
         StepContainer.setManager(manager);
         StepContainer.setOptionalSteps(getCucumberOptionalSteps());
 
+        boolean startedApiTier = ApiTier.startOnce(() -> newRunner().runCukes(Tier.API));
+        try {
+            newRunner().runCukes(Tier.BROWSER);
+        } finally {
+            if (startedApiTier) {
+                ApiTier.awaitCompletion();
+            }
+            //Last thread done prints statistics shared by all of them, once per JVM
+            if (finishedRunners.incrementAndGet() == Integer.parseInt(System.getProperty("threadCount", "1"))) {
+                Runtime.printSharedStats(System.out);
+            }
+        }
+    }
+
+    /**
+     * @return runner reporting to the directory of the current thread
+     */
+    private TestNGCucumberConcurrentRunner newRunner() {
         String client = SessionPrototype.isMobile() ? "mobile" : "web";
 
-        long id = Thread.currentThread().getId();
+        String reportDir = "target/cucumber/" + ScenarioQueue.reportDirName(Thread.currentThread().getId());
 
         RuntimeOptions options = new RuntimeOptions(Arrays.asList(
                 "src/test/resources/features/" + client + "/",
                 "--glue", "test.java.steps." + client,
-                "--format", "html:target/cucumber/" + id,
-                "--format", "json:target/cucumber/" + id + "/cucumber.json",
-                "--format", "junit:target/cucumber/" + id + "/junit.xml"
+                "--format", "html:" + reportDir,
+                "--format", "json:" + reportDir + "/cucumber.json",
+                "--format", "junit:" + reportDir + "/junit.xml"
         ));
-        TestNGCucumberConcurrentRunner runner = new TestNGCucumberConcurrentRunner(getClass(), options);
-        runner.runCukes();
+        return new TestNGCucumberConcurrentRunner(getClass(), options);
     }
 
     @Override
@@ -71,6 +95,25 @@ public abstract class TestNGCucumberListenerPrototype implements IHookable, IAnn
     /**
      * Specify maven goal, e.g.:
      * clean test "-Dcucumber.options=--tags @smoke --tags ~@debug" -DthreadCount=2
+     * <p>
+     * Add -DminThreadCount=n to start with n threads and adapt the number of running threads up to threadCount
+     * to driver start time and host load, see AdaptiveConcurrency
+     * <p>
+     * Add -DapiThreadCount=n to run @no-driver scenarios on n extra threads (virtual threads on JDK 21+),
+     * see ApiTier
+     * <p>
+     * Add -Dscheduling=duration to start the longest scenarios (according to previous runs) first
+     * <p>
+     * Tag scenarios @exclusive, @serial or @lock(name), or add -DtagLimits=@tag:n, to keep scenarios sharing
+     * a resource apart, see TagLocks. The locks only hold within one JVM, so a run using them refuses to start
+     * with -Dshard or -Dcoordinator.
+     * <p>
+     * Add -Dshard=i/n to run only the i-th of n parts of the scenarios, e.g. one part per JVM or machine.
+     * Reports go to target/cucumber/shard{i}of{n}-thread{id}, copy the directories of all shards
+     * into one target/cucumber folder to merge them with JSONReportMerger and JUnitXMLMerger.
+     * <p>
+     * Add -Dcoordinator=port to take scenarios from a ScenarioCoordinator running on this machine instead,
+     * reports then go to target/cucumber/worker{pid}-thread{id}.
      */
     @Override
     public void transform(ITestAnnotation annotation, Class testClass, Constructor testConstructor, Method testMethod) {
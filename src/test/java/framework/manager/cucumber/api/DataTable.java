@@ -2,7 +2,6 @@ package test.java.framework.manager.cucumber.api;
 
 import gherkin.formatter.PrettyFormatter;
 import gherkin.formatter.model.DataTableRow;
-import gherkin.formatter.model.Row;
 import test.java.framework.manager.cucumber.runtime.CucumberException;
 import test.java.framework.manager.cucumber.runtime.ParameterInfo;
 import test.java.framework.manager.cucumber.runtime.table.DiffableRow;
@@ -19,6 +18,10 @@ import java.util.*;
  */
 public class DataTable {
 
+    // All cells column by column, shared by a table and its transposed tables
+    private final String[] cells;
+    private final int storedRows;
+    private final boolean transposed;
     private final List<List<String>> raw;
     private final List<DataTableRow> gherkinRows;
     private final TableConverter tableConverter;
@@ -43,6 +46,8 @@ public class DataTable {
 
     /**
      * Creates a new DataTable. This constructor should not be called by Cucumber users - it's used internally only.
+     * <p>
+     * The cells are copied once into a single array, rows and columns are views on it.
      *
      * @param gherkinRows    the underlying rows.
      * @param tableConverter how to convert the rows.
@@ -50,23 +55,30 @@ public class DataTable {
     public DataTable(List<DataTableRow> gherkinRows, TableConverter tableConverter) {
         this.gherkinRows = gherkinRows;
         this.tableConverter = tableConverter;
+        int rows = gherkinRows.size();
         int columns = gherkinRows.get(0).getCells().size();
-        List<List<String>> raw = new ArrayList<List<String>>();
-        for (Row row : gherkinRows) {
-            List<String> list = new ArrayList<String>();
-            list.addAll(row.getCells());
-            if (columns != row.getCells().size()) {
-                throw new CucumberException(String.format("Table is unbalanced: expected %s column(s) but found %s.", columns, row.getCells().size()));
+        this.cells = new String[rows * columns];
+        for (int row = 0; row < rows; row++) {
+            List<String> rowCells = gherkinRows.get(row).getCells();
+            if (columns != rowCells.size()) {
+                throw new CucumberException(String.format("Table is unbalanced: expected %s column(s) but found %s.", columns, rowCells.size()));
+            }
+            for (int column = 0; column < columns; column++) {
+                cells[column * rows + row] = rowCells.get(column);
             }
-            raw.add(Collections.unmodifiableList(list));
         }
-        this.raw = Collections.unmodifiableList(raw);
+        this.storedRows = rows;
+        this.transposed = false;
+        this.raw = new Rows();
     }
 
-    private DataTable(List<DataTableRow> gherkinRows, List<List<String>> raw, TableConverter tableConverter) {
-        this.gherkinRows = gherkinRows;
-        this.tableConverter = tableConverter;
-        this.raw = Collections.unmodifiableList(raw);
+    private DataTable(DataTable table, boolean transposed) {
+        this.gherkinRows = table.gherkinRows;
+        this.tableConverter = table.tableConverter;
+        this.cells = table.cells;
+        this.storedRows = table.storedRows;
+        this.transposed = transposed;
+        this.raw = new Rows();
     }
 
     /**
@@ -220,23 +232,11 @@ public class DataTable {
         return tableConverter;
     }
 
+    /**
+     * @return the same cells with rows and columns swapped, without copying them
+     */
     public DataTable transpose() {
-        List<List<String>> transposed = new ArrayList<List<String>>();
-        for (int i = 0; i < gherkinRows.size(); i++) {
-            Row gherkinRow = gherkinRows.get(i);
-            for (int j = 0; j < gherkinRow.getCells().size(); j++) {
-                List<String> row = null;
-                if (j < transposed.size()) {
-                    row = transposed.get(j);
-                }
-                if (row == null) {
-                    row = new ArrayList<String>();
-                    transposed.add(row);
-                }
-                row.add(gherkinRow.getCells().get(j));
-            }
-        }
-        return new DataTable(this.gherkinRows, transposed, this.tableConverter);
+        return new DataTable(this, !transposed);
     }
 
     @Override
@@ -253,4 +253,48 @@ public class DataTable {
     public int hashCode() {
         return raw.hashCode();
     }
+
+    private int storedColumns() {
+        return storedRows == 0 ? 0 : cells.length / storedRows;
+    }
+
+    private String cell(int row, int column) {
+        return transposed ? cells[row * storedRows + column] : cells[column * storedRows + row];
+    }
+
+    private class Rows extends AbstractList<List<String>> implements RandomAccess {
+        @Override
+        public List<String> get(int row) {
+            if (row < 0 || row >= size()) {
+                throw new IndexOutOfBoundsException("Row " + row + " of " + size());
+            }
+            return new RowView(row);
+        }
+
+        @Override
+        public int size() {
+            return transposed ? storedColumns() : storedRows;
+        }
+    }
+
+    private class RowView extends AbstractList<String> implements RandomAccess {
+        private final int row;
+
+        private RowView(int row) {
+            this.row = row;
+        }
+
+        @Override
+        public String get(int column) {
+            if (column < 0 || column >= size()) {
+                throw new IndexOutOfBoundsException("Column " + column + " of " + size());
+            }
+            return cell(row, column);
+        }
+
+        @Override
+        public int size() {
+            return transposed ? storedRows : storedColumns();
+        }
+    }
 }
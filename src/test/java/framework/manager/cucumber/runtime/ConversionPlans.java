@@ -0,0 +1,171 @@
+package test.java.framework.manager.cucumber.runtime;
+
+import cucumber.deps.com.thoughtworks.xstream.converters.SingleValueConverter;
+import gherkin.formatter.Argument;
+import gherkin.formatter.model.Step;
+import test.java.framework.manager.cucumber.api.DataTable;
+import test.java.framework.manager.cucumber.runtime.table.TableConverter;
+import test.java.framework.manager.cucumber.runtime.xstream.LocalizedXStreams;
+
+import java.lang.reflect.Type;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Argument conversion of step definitions, worked out once per step definition and locale.
+ * <p>
+ * A {@link Plan} holds the parameter infos, the resolved converters and transformers and the table conversion
+ * of a step definition, so running a step only converts the values. Plans use the xStreams of one runtime and
+ * are kept with its glue.
+ */
+public class ConversionPlans {
+    private final LocalizedXStreams localizedXStreams;
+    private final Map<Locale, Map<StepDefinition, Plan>> plansByLocale = new ConcurrentHashMap<>();
+
+    public ConversionPlans(LocalizedXStreams localizedXStreams) {
+        this.localizedXStreams = localizedXStreams;
+    }
+
+    /**
+     * @param stepDefinition the step definition to convert arguments for
+     * @param locale         locale of the feature
+     * @param argumentCount  number of arguments matched in the step text
+     * @return plan for the step definition
+     */
+    Plan get(StepDefinition stepDefinition, Locale locale, int argumentCount) {
+        Map<StepDefinition, Plan> plans = plansByLocale.computeIfAbsent(locale, key -> new ConcurrentHashMap<>());
+        Plan plan = plans.get(stepDefinition);
+        if (plan == null) {
+            plan = new Plan(stepDefinition, localizedXStreams, locale, argumentCount);
+            plans.put(stepDefinition, plan);
+        }
+        //The number of groups is fixed by the pattern, only a backend with optional groups would get here
+        return plan.converters.length == argumentCount ? plan : new Plan(stepDefinition, localizedXStreams, locale, argumentCount);
+    }
+
+    /**
+     * Conversion of a step argument to the type of its parameter
+     */
+    interface ArgumentConverter {
+        Object convert(String value);
+    }
+
+    static class Plan {
+        private final StepDefinition stepDefinition;
+        private final LocalizedXStreams localizedXStreams;
+        private final Locale locale;
+        private final ArgumentConverter[] converters;
+        // Resolved with the first table passed to the step definition
+        private volatile TableArgument tableArgument;
+
+        private Plan(StepDefinition stepDefinition, LocalizedXStreams localizedXStreams, Locale locale, int argumentCount) {
+            this.stepDefinition = stepDefinition;
+            this.localizedXStreams = localizedXStreams;
+            this.locale = locale;
+            this.converters = new ArgumentConverter[argumentCount];
+            for (int n = 0; n < argumentCount; n++) {
+                converters[n] = argumentConverter(parameterInfo(stepDefinition, n, String.class));
+            }
+        }
+
+        /**
+         * Scalar types are converted without XStream, the xStream of the locale is only created
+         * once a parameter needs it.
+         */
+        private ArgumentConverter argumentConverter(ParameterInfo parameterInfo) {
+            ArgumentConverter xStreamConverter = new XStreamArgumentConverter(parameterInfo, localizedXStreams, locale);
+            if (parameterInfo.hasDefaultConversion()) {
+                ArgumentConverter scalarConverter = ScalarConverters.forType(parameterInfo.getRawType(), locale, xStreamConverter::convert);
+                if (scalarConverter != null) {
+                    return scalarConverter;
+                }
+            }
+            return xStreamConverter;
+        }
+
+        /**
+         * @param arguments arguments matched in the step text, as many as the plan was made for
+         * @param step      the step to run
+         * @return an Array matching the types of the step definition parameters
+         */
+        Object[] convert(List<Argument> arguments, Step step) {
+            int argumentCount = converters.length;
+            boolean hasTable = step.getRows() != null;
+            boolean hasDocString = !hasTable && step.getDocString() != null;
+            Object[] result = new Object[hasTable || hasDocString ? argumentCount + 1 : argumentCount];
+
+            for (int n = 0; n < argumentCount; n++) {
+                result[n] = converters[n].convert(arguments.get(n).getVal());
+            }
+
+            if (hasTable) {
+                result[argumentCount] = tableArgument(argumentCount).convert(step);
+            } else if (hasDocString) {
+                result[argumentCount] = step.getDocString().getValue();
+            }
+            return result;
+        }
+
+        private TableArgument tableArgument(int argIndex) {
+            TableArgument argument = tableArgument;
+            if (argument == null) {
+                argument = new TableArgument(parameterInfo(stepDefinition, argIndex, DataTable.class), localizedXStreams.get(locale));
+                tableArgument = argument;
+            }
+            return argument;
+        }
+
+        private static ParameterInfo parameterInfo(StepDefinition stepDefinition, int n, Type argumentType) {
+            ParameterInfo parameterInfo = stepDefinition.getParameterType(n, argumentType);
+            if (parameterInfo == null) {
+                // Some backends return null because they don't know
+                parameterInfo = new ParameterInfo(argumentType, null, null, false, null);
+            }
+            return parameterInfo;
+        }
+    }
+
+    /**
+     * Converts with the transformer or the XStream converter of the parameter, resolved on first use
+     */
+    private static class XStreamArgumentConverter implements ArgumentConverter {
+        private final ParameterInfo parameterInfo;
+        private final LocalizedXStreams localizedXStreams;
+        private final Locale locale;
+        private volatile LocalizedXStreams.LocalizedXStream xStream;
+        private volatile SingleValueConverter converter;
+
+        private XStreamArgumentConverter(ParameterInfo parameterInfo, LocalizedXStreams localizedXStreams, Locale locale) {
+            this.parameterInfo = parameterInfo;
+            this.localizedXStreams = localizedXStreams;
+            this.locale = locale;
+        }
+
+        @Override
+        public Object convert(String value) {
+            LocalizedXStreams.LocalizedXStream resolvedXStream = xStream;
+            if (resolvedXStream == null) {
+                resolvedXStream = localizedXStreams.get(locale);
+                converter = parameterInfo.converterFor(resolvedXStream);
+                xStream = resolvedXStream;
+            }
+            return parameterInfo.convert(value, converter, resolvedXStream);
+        }
+    }
+
+    private static class TableArgument {
+        private final TableConverter tableConverter;
+        private final TableConverter.Conversion conversion;
+
+        private TableArgument(ParameterInfo parameterInfo, LocalizedXStreams.LocalizedXStream xStream) {
+            this.tableConverter = new TableConverter(xStream, parameterInfo);
+            this.conversion = tableConverter.compile(parameterInfo.getType(), parameterInfo.isTransposed());
+        }
+
+        private Object convert(Step step) {
+            return conversion.convert(new DataTable(step.getRows(), tableConverter));
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package test.java.framework.manager.cucumber.runtime;
+
+import gherkin.formatter.model.Tag;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Hooks to run for a scenario, worked out once per distinct set of scenario tags.
+ * <p>
+ * Tag names are numbered in the order they are first seen, a scenario's tags become a bit set of those numbers.
+ * Most scenarios of a feature have the same tags, so the tag expressions of the hooks are evaluated for the first
+ * of them only and the others look the hooks up by their bit set. Hooks are expected to depend on tag names only.
+ */
+class HookSelection {
+
+    private final Map<String, Integer> tagIds = new ConcurrentHashMap<>();
+    private final Map<BitSet, List<HookDefinition>> beforeHooksByTags = new ConcurrentHashMap<>();
+    private final Map<BitSet, List<HookDefinition>> afterHooksByTags = new ConcurrentHashMap<>();
+
+    /**
+     * @param hooks all before hooks, in the order they run
+     * @param tags  tags of the scenario
+     * @return before hooks matching the tags, in the order they run
+     */
+    List<HookDefinition> before(Supplier<List<HookDefinition>> hooks, Collection<Tag> tags) {
+        return select(beforeHooksByTags, hooks, tags);
+    }
+
+    /**
+     * @param hooks all after hooks, in the order they run
+     * @param tags  tags of the scenario
+     * @return after hooks matching the tags, in the order they run
+     */
+    List<HookDefinition> after(Supplier<List<HookDefinition>> hooks, Collection<Tag> tags) {
+        return select(afterHooksByTags, hooks, tags);
+    }
+
+    /**
+     * Forgets the selected hooks, called whenever a hook is added to the glue
+     */
+    void clear() {
+        beforeHooksByTags.clear();
+        afterHooksByTags.clear();
+    }
+
+    private List<HookDefinition> select(Map<BitSet, List<HookDefinition>> cache, Supplier<List<HookDefinition>> hooks, Collection<Tag> tags) {
+        return cache.computeIfAbsent(tagBits(tags), bits -> {
+            List<HookDefinition> selected = new ArrayList<>();
+            for (HookDefinition hook : hooks.get()) {
+                if (hook.matches(tags)) {
+                    selected.add(hook);
+                }
+            }
+            return Collections.unmodifiableList(selected);
+        });
+    }
+
+    private BitSet tagBits(Collection<Tag> tags) {
+        BitSet bits = new BitSet();
+        for (Tag tag : tags) {
+            Integer id = tagIds.get(tag.getName());
+            if (id == null) {
+                synchronized (tagIds) {
+                    id = tagIds.computeIfAbsent(tag.getName(), name -> tagIds.size());
+                }
+            }
+            bits.set(id);
+        }
+        return bits;
+    }
+}
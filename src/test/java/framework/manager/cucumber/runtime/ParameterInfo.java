@@ -103,6 +103,14 @@ public class ParameterInfo {
         return type;
     }
 
+    /**
+     * @return true if the value is converted by the converter registered for the type, without a transformer,
+     * a format or a converter declared on the type
+     */
+    boolean hasDefaultConversion() {
+        return transformer == null && format == null && !getRawType().isAnnotationPresent(XStreamConverter.class);
+    }
+
     public boolean isTransposed() {
         return transposed;
     }
@@ -113,35 +121,54 @@ public class ParameterInfo {
     }
 
     public Object convert(String value, LocalizedXStreams.LocalizedXStream xStream) {
+        return convert(value, converterFor(xStream), xStream);
+    }
+
+    /**
+     * Resolves the converter for this parameter, to be passed to {@link #convert(String, SingleValueConverter, LocalizedXStreams.LocalizedXStream)}
+     * for every value converted with the same xStream.
+     *
+     * @param xStream xStream of the locale to convert with
+     * @return the transformer, a converter registered for the type, or null if there is none
+     */
+    public SingleValueConverter converterFor(LocalizedXStreams.LocalizedXStream xStream) {
+        xStream.processAnnotations(getRawType());
+        xStream.autodetectAnnotations(true); // Needed to unlock annotation processing
+
+        if (transformer != null) {
+            return transformer;
+        } else if (List.class.isAssignableFrom(getRawType())) {
+            return getListConverter(type, xStream);
+        } else {
+            return xStream.getSingleValueConverter(getRawType());
+        }
+    }
+
+    /**
+     * @param value     the value to convert
+     * @param converter converter returned by {@link #converterFor(LocalizedXStreams.LocalizedXStream)} for the same xStream
+     * @param xStream   xStream of the locale to convert with
+     * @return the converted value
+     */
+    public Object convert(String value, SingleValueConverter converter, LocalizedXStreams.LocalizedXStream xStream) {
+        if (converter == null) {
+            throw new CucumberException(String.format(
+                    "Don't know how to convert \"%s\" into %s.\n" +
+                            "Try writing your own converter:\n" +
+                            "\n" +
+                            "@%s(%sConverter.class)\n" +
+                            "public class %s {}\n",
+                    value,
+                    getRawType().getName(),
+                    XStreamConverter.class.getName(),
+                    getRawType().getSimpleName(),
+                    getRawType().getSimpleName()
+            ));
+        }
         try {
             xStream.setParameterInfo(this);
-            SingleValueConverter converter;
-            xStream.processAnnotations(getRawType());
-            xStream.autodetectAnnotations(true); // Needed to unlock annotation processing
-
             if (transformer != null) {
                 transformer.setParameterInfoAndLocale(this, xStream.getLocale());
-                converter = transformer;
-            } else {
-                if (List.class.isAssignableFrom(getRawType())) {
-                    converter = getListConverter(type, xStream);
-                } else {
-                    converter = xStream.getSingleValueConverter(getRawType());
-                }
-                if (converter == null) {
-                    throw new CucumberException(String.format(
-                            "Don't know how to convert \"%s\" into %s.\n" +
-                                    "Try writing your own converter:\n" +
-                                    "\n" +
-                                    "@%s(%sConverter.class)\n" +
-                                    "public class %s {}\n",
-                            value,
-                            getRawType().getName(),
-                            XStreamConverter.class.getName(),
-                            getRawType().getSimpleName(),
-                            getRawType().getSimpleName()
-                    ));
-                }
             }
             return converter.fromString(value);
         } finally {
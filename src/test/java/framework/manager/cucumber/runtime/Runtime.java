@@ -73,16 +73,23 @@ public class Runtime {
         this.backends = backends;
         this.runtimeOptions = runtimeOptions;
         this.stopWatch = stopWatch;
-        this.glue = optionalGlue != null ? optionalGlue : new RuntimeGlue(undefinedStepsTracker, new LocalizedXStreams(classLoader));
+        if (optionalGlue != null && optionalGlue.isFrozen()) {
+            // Glue is already loaded and shared with other runtimes, keep the runtime specific state apart
+            this.glue = optionalGlue.view(undefinedStepsTracker, new LocalizedXStreams(classLoader));
+        } else {
+            this.glue = optionalGlue != null ? optionalGlue : new RuntimeGlue(undefinedStepsTracker, new LocalizedXStreams(classLoader));
+        }
         this.stats = new Stats(runtimeOptions.isMonochrome());
 
         for (Backend backend : backends) {
-            backend.loadGlue(glue, runtimeOptions.getGlue());
+            if (!glue.isFrozen()) {
+                backend.loadGlue(glue, runtimeOptions.getGlue());
+            }
             backend.setUnreportedStepExecutor(this);
         }
     }
 
-    private static Collection<? extends Backend> loadBackends(ResourceLoader resourceLoader, ClassFinder classFinder) {
+    static Collection<? extends Backend> loadBackends(ResourceLoader resourceLoader, ClassFinder classFinder) {
         Reflections reflections = new Reflections(classFinder);
         return reflections.instantiateSubclasses(Backend.class, "test.java.framework.manager.cucumber.runtime", new Class[]{ResourceLoader.class}, new Object[]{resourceLoader});
     }
@@ -125,6 +132,20 @@ public class Runtime {
 
     void printStats(PrintStream out) {
         stats.printStats(out);
+        if (!glue.hasSharedMatchCache()) {
+            glue.printMatchCacheStats(out);
+        }
+    }
+
+    /**
+     * Prints statistics shared by all runtimes of the JVM: step match caches of shared glue and timeouts.
+     * To be called once, after all runtimes are done
+     *
+     * @param out stream to print to
+     */
+    public static void printSharedStats(PrintStream out) {
+        SharedGlue.printMatchCacheStats(out);
+        Timeout.printStats(out);
     }
 
     private void writeStepdefsJson() {
@@ -190,43 +211,41 @@ public class Runtime {
     }
 
     public void runBeforeHooks(Reporter reporter, Set<Tag> tags) {
-        runHooks(glue.getBeforeHooks(), reporter, tags, true);
+        runHooks(glue.getBeforeHooks(tags), reporter, true);
     }
 
     public void runAfterHooks(Reporter reporter, Set<Tag> tags) {
-        runHooks(glue.getAfterHooks(), reporter, tags, false);
+        runHooks(glue.getAfterHooks(tags), reporter, false);
     }
 
-    private void runHooks(List<HookDefinition> hooks, Reporter reporter, Set<Tag> tags, boolean isBefore) {
+    private void runHooks(List<HookDefinition> matchingHooks, Reporter reporter, boolean isBefore) {
         if (!runtimeOptions.isDryRun()) {
-            for (HookDefinition hook : hooks) {
-                runHookIfTagsMatch(hook, reporter, tags, isBefore);
+            for (HookDefinition hook : matchingHooks) {
+                runHook(hook, reporter, isBefore);
             }
         }
     }
 
-    private void runHookIfTagsMatch(HookDefinition hook, Reporter reporter, Set<Tag> tags, boolean isBefore) {
-        if (hook.matches(tags)) {
-            String status = Result.PASSED;
-            Throwable error = null;
-            Match match = new Match(Collections.<Argument>emptyList(), hook.getLocation(false));
-            stopWatch.start();
-            try {
-                hook.execute(scenarioResult);
-            } catch (Throwable t) {
-                error = t;
-                status = isPending(t) ? "pending" : Result.FAILED;
-                addError(t);
-                skipNextStep = true;
-            } finally {
-                long duration = stopWatch.stop();
-                Result result = new Result(status, duration, error, DUMMY_ARG);
-                addHookToCounterAndResult(result);
-                if (isBefore) {
-                    reporter.before(match, result);
-                } else {
-                    reporter.after(match, result);
-                }
+    private void runHook(HookDefinition hook, Reporter reporter, boolean isBefore) {
+        String status = Result.PASSED;
+        Throwable error = null;
+        Match match = new Match(Collections.<Argument>emptyList(), hook.getLocation(false));
+        stopWatch.start();
+        try {
+            hook.execute(scenarioResult);
+        } catch (Throwable t) {
+            error = t;
+            status = isPending(t) ? "pending" : Result.FAILED;
+            addError(t);
+            skipNextStep = true;
+        } finally {
+            long duration = stopWatch.stop();
+            Result result = new Result(status, duration, error, DUMMY_ARG);
+            addHookToCounterAndResult(result);
+            if (isBefore) {
+                reporter.before(match, result);
+            } else {
+                reporter.after(match, result);
             }
         }
     }
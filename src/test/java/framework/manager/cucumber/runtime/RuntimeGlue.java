@@ -5,6 +5,7 @@ import gherkin.deps.com.google.gson.Gson;
 import gherkin.deps.com.google.gson.GsonBuilder;
 import gherkin.formatter.Argument;
 import gherkin.formatter.model.Step;
+import gherkin.formatter.model.Tag;
 import test.java.framework.manager.cucumber.runtime.autocomplete.MetaStepdef;
 import test.java.framework.manager.cucumber.runtime.autocomplete.StepdefGenerator;
 import test.java.framework.manager.cucumber.runtime.io.ResourceLoader;
@@ -14,6 +15,7 @@ import test.java.framework.manager.cucumber.runtime.model.CucumberFeature;
 import test.java.framework.manager.cucumber.runtime.xstream.LocalizedXStreams;
 
 import java.io.IOException;
+import java.io.PrintStream;
 import java.io.Writer;
 import java.net.URL;
 import java.util.*;
@@ -24,42 +26,131 @@ import static test.java.framework.manager.cucumber.runtime.model.CucumberFeature
 public class RuntimeGlue {
     private static final List<Object> NO_FILTERS = emptyList();
 
-    private final Map<String, StepDefinition> stepDefinitionsByPattern = new TreeMap<>();
-    private final List<HookDefinition> beforeHooks = new ArrayList<>();
-    private final List<HookDefinition> afterHooks = new ArrayList<>();
+    private final Map<String, StepDefinition> stepDefinitionsByPattern;
+    private final List<HookDefinition> beforeHooks;
+    private final List<HookDefinition> afterHooks;
 
     private final UndefinedStepsTracker tracker;
-    private final LocalizedXStreams localizedXStreams;
+    private final ConversionPlans conversionPlans;
+    private boolean hooksSorted = true;
+    private boolean frozen = false;
+    private StepDefinitionIndex index;
+    private final StepMatchCache matchCache;
+    private final boolean sharedMatchCache;
+    private final HookSelection hookSelection;
 
     public RuntimeGlue(UndefinedStepsTracker tracker, LocalizedXStreams localizedXStreams) {
+        this.stepDefinitionsByPattern = new TreeMap<>();
+        this.beforeHooks = new ArrayList<>();
+        this.afterHooks = new ArrayList<>();
         this.tracker = tracker;
-        this.localizedXStreams = localizedXStreams;
+        this.conversionPlans = new ConversionPlans(localizedXStreams);
+        this.matchCache = new StepMatchCache();
+        this.sharedMatchCache = false;
+        this.hookSelection = new HookSelection();
+    }
+
+    private RuntimeGlue(RuntimeGlue frozenGlue, UndefinedStepsTracker tracker, LocalizedXStreams localizedXStreams) {
+        this.stepDefinitionsByPattern = frozenGlue.stepDefinitionsByPattern;
+        this.beforeHooks = frozenGlue.beforeHooks;
+        this.afterHooks = frozenGlue.afterHooks;
+        this.tracker = tracker;
+        this.conversionPlans = new ConversionPlans(localizedXStreams);
+        this.index = frozenGlue.index;
+        this.matchCache = frozenGlue.matchCache;
+        this.sharedMatchCache = true;
+        this.hookSelection = frozenGlue.hookSelection;
+        this.frozen = true;
+    }
+
+    /**
+     * Sorts the hooks and rejects any further definitions, after that the glue may be read by several threads.
+     */
+    public void freeze() {
+        sortHooks();
+        index = new StepDefinitionIndex(stepDefinitionsByPattern.values());
+        frozen = true;
+    }
+
+    public boolean isFrozen() {
+        return frozen;
+    }
+
+    /**
+     * Shares the step definitions and hooks of this frozen glue with a runtime that keeps its own
+     * undefined steps and transformers.
+     */
+    public RuntimeGlue view(UndefinedStepsTracker tracker, LocalizedXStreams localizedXStreams) {
+        if (!frozen) {
+            throw new CucumberException("Only frozen glue can be shared between runtimes");
+        }
+        return new RuntimeGlue(this, tracker, localizedXStreams);
     }
 
     public void addStepDefinition(StepDefinition stepDefinition) {
+        checkNotFrozen();
         StepDefinition previous = stepDefinitionsByPattern.get(stepDefinition.getPattern());
         if (previous != null) {
             throw new DuplicateStepDefinitionException(previous, stepDefinition);
         }
         stepDefinitionsByPattern.put(stepDefinition.getPattern(), stepDefinition);
+        index = null;
+        matchCache.clear();
     }
 
     public void addBeforeHook(HookDefinition hookDefinition) {
+        checkNotFrozen();
         beforeHooks.add(hookDefinition);
-        Collections.sort(beforeHooks, new HookComparator(true));
+        hooksSorted = false;
+        hookSelection.clear();
     }
 
     public void addAfterHook(HookDefinition hookDefinition) {
+        checkNotFrozen();
         afterHooks.add(hookDefinition);
-        Collections.sort(afterHooks, new HookComparator(false));
+        hooksSorted = false;
+        hookSelection.clear();
     }
 
     public List<HookDefinition> getBeforeHooks() {
-        return beforeHooks;
+        sortHooks();
+        return Collections.unmodifiableList(beforeHooks);
     }
 
     public List<HookDefinition> getAfterHooks() {
-        return afterHooks;
+        sortHooks();
+        return Collections.unmodifiableList(afterHooks);
+    }
+
+    /**
+     * @param tags tags of the scenario
+     * @return before hooks matching the tags, in the order they run
+     */
+    public List<HookDefinition> getBeforeHooks(Collection<Tag> tags) {
+        return hookSelection.before(this::getBeforeHooks, tags);
+    }
+
+    /**
+     * @param tags tags of the scenario
+     * @return after hooks matching the tags, in the order they run
+     */
+    public List<HookDefinition> getAfterHooks(Collection<Tag> tags) {
+        return hookSelection.after(this::getAfterHooks, tags);
+    }
+
+    private void sortHooks() {
+        if (!hooksSorted) {
+            // Stable sort, hooks with the same order keep the order they were added in
+            Collections.sort(beforeHooks, new HookComparator(true));
+            Collections.sort(afterHooks, new HookComparator(false));
+            hooksSorted = true;
+        }
+    }
+
+    private void checkNotFrozen() {
+        if (frozen) {
+            throw new CucumberException("Glue is shared between runtimes and can't be changed anymore");
+        }
     }
 
     public StepDefinitionMatch stepDefinitionMatch(String featurePath, Step step, I18n i18n) {
@@ -81,13 +172,35 @@ public class RuntimeGlue {
 
     private List<StepDefinitionMatch> stepDefinitionMatches(String featurePath, Step step) {
         List<StepDefinitionMatch> result = new ArrayList<>();
-        for (StepDefinition stepDefinition : stepDefinitionsByPattern.values()) {
+        for (StepMatchCache.Resolved resolved : matchCache.get(step.getName(), stepName -> resolve(step))) {
+            result.add(new StepDefinitionMatch(resolved.arguments, resolved.stepDefinition, featurePath, step, conversionPlans));
+        }
+        return result;
+    }
+
+    private List<StepMatchCache.Resolved> resolve(Step step) {
+        if (index == null) {
+            index = new StepDefinitionIndex(stepDefinitionsByPattern.values());
+        }
+        List<StepMatchCache.Resolved> resolved = new ArrayList<>();
+        for (StepDefinition stepDefinition : index.candidates(step.getName())) {
             List<Argument> arguments = stepDefinition.matchedArguments(step);
             if (arguments != null) {
-                result.add(new StepDefinitionMatch(arguments, stepDefinition, featurePath, step, localizedXStreams));
+                resolved.add(new StepMatchCache.Resolved(stepDefinition, arguments));
             }
         }
-        return result;
+        return resolved;
+    }
+
+    /**
+     * @return true for a view, whose step match cache is shared with all views of the same glue
+     */
+    boolean hasSharedMatchCache() {
+        return sharedMatchCache;
+    }
+
+    void printMatchCacheStats(PrintStream out) {
+        matchCache.printStats(out);
     }
 
     public void writeStepdefsJson(ResourceLoader resourceLoader, List<String> featurePaths, URL dotCucumber) {
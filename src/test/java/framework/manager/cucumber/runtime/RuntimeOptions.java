@@ -4,13 +4,14 @@ import gherkin.formatter.Formatter;
 import gherkin.formatter.Reporter;
 import gherkin.util.FixJava;
 import test.java.framework.manager.cucumber.api.SnippetType;
+import test.java.framework.manager.cucumber.runtime.formatter.AsyncFormatter;
 import test.java.framework.manager.cucumber.runtime.formatter.ColorAware;
+import test.java.framework.manager.cucumber.runtime.formatter.CompositeFormatter;
 import test.java.framework.manager.cucumber.runtime.formatter.FormatterFactory;
 import test.java.framework.manager.cucumber.runtime.formatter.StrictAware;
 import test.java.framework.manager.cucumber.runtime.io.ResourceLoader;
 import test.java.framework.manager.cucumber.runtime.model.CucumberFeature;
 
-import java.lang.reflect.Proxy;
 import java.net.URL;
 import java.util.ArrayList;
 import java.util.List;
@@ -36,6 +37,7 @@ public class RuntimeOptions {
     private boolean monochrome = false;
     private SnippetType snippetType = SnippetType.UNDERSCORE;
     private boolean formattersCreated = false;
+    private CompositeFormatter compositeFormatter;
 
     /**
      * Create a new instance from a string of options, for example:
@@ -153,33 +155,36 @@ public class RuntimeOptions {
         if (!formattersCreated) {
             for (String formatterName : formatterNames) {
                 Formatter formatter = formatterFactory.create(formatterName);
-                formatters.add(formatter);
                 setMonochromeOnColorAwareFormatters(formatter);
                 setStrictOnStrictAwareFormatters(formatter);
+                formatters.add(AsyncFormatter.isEnabled() ? AsyncFormatter.wrap(formatter) : formatter);
             }
             formattersCreated = true;
         }
         return formatters;
     }
 
+    /**
+     * @param classLoader not used, formatters are called directly
+     * @return formatter passing events to all formatters, the same instance on every call
+     */
     public Formatter formatter(ClassLoader classLoader) {
-        return (Formatter) Proxy.newProxyInstance(classLoader, new Class<?>[]{Formatter.class}, (target, method, args) -> {
-            for (Formatter formatter : getFormatters()) {
-                Utils.invoke(formatter, method, 0, args);
-            }
-            return null;
-        });
+        return compositeFormatter();
     }
 
+    /**
+     * @param classLoader not used, reporters are called directly
+     * @return reporter passing events to all formatters that are reporters, the same instance on every call
+     */
     public Reporter reporter(ClassLoader classLoader) {
-        return (Reporter) Proxy.newProxyInstance(classLoader, new Class<?>[]{Reporter.class}, (target, method, args) -> {
-            for (Formatter formatter : formatters) {
-                if (formatter instanceof Reporter) {
-                    Utils.invoke(formatter, method, 0, args);
-                }
-            }
-            return null;
-        });
+        return compositeFormatter();
+    }
+
+    private synchronized CompositeFormatter compositeFormatter() {
+        if (compositeFormatter == null) {
+            compositeFormatter = new CompositeFormatter(getFormatters());
+        }
+        return compositeFormatter;
     }
 
     private void setMonochromeOnColorAwareFormatters(Formatter formatter) {
@@ -216,8 +221,11 @@ public class RuntimeOptions {
         return dotCucumber;
     }
 
-    public void addFormatter(Formatter formatter) {
+    public synchronized void addFormatter(Formatter formatter) {
         formatters.add(formatter);
+        if (compositeFormatter != null) {
+            compositeFormatter.setFormatters(formatters);
+        }
     }
 
     public List<Object> getFilters() {
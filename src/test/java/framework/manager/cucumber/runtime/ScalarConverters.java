@@ -0,0 +1,120 @@
+package test.java.framework.manager.cucumber.runtime;
+
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.text.NumberFormat;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Converts step arguments of the common scalar types without going through XStream: strings, booleans,
+ * int, long, float and double (primitive or boxed) and enums.
+ * <p>
+ * Only plain values are converted here: numbers made of ASCII digits with an optional minus sign and, for
+ * floating point types, the locale's decimal separator when that is a dot. Those give the same result as the
+ * locale-aware XStream converters. Anything else, e.g. grouping separators, a decimal comma, enum names in
+ * another case or values out of range, is passed to the XStream conversion as before.
+ */
+class ScalarConverters {
+    private static final int MAX_INT_DIGITS = 9;
+    private static final int MAX_LONG_DIGITS = 18;
+    private static final int MAX_DECIMAL_DIGITS = 15;
+
+    private ScalarConverters() {
+    }
+
+    /**
+     * @param type     parameter type of the step definition
+     * @param locale   locale of the feature
+     * @param fallback XStream conversion for values that aren't plain
+     * @return converter for the type, or null if the type isn't one of the scalar types
+     */
+    static ConversionPlans.ArgumentConverter forType(Class<?> type, Locale locale, Function<String, Object> fallback) {
+        if (String.class.equals(type) || Object.class.equals(type)) {
+            return value -> value;
+        }
+        if (Boolean.class.equals(type) || boolean.class.equals(type)) {
+            //Same as XStream's BooleanConverter: "true" in any case, anything else is false
+            return Boolean::valueOf;
+        }
+        if (type.isEnum()) {
+            return enumConverter(type, fallback);
+        }
+        if (!(Number.class.isAssignableFrom(type) || type.isPrimitive())) {
+            return null;
+        }
+        NumberFormat numberFormat = NumberFormat.getNumberInstance(locale);
+        if (!(numberFormat instanceof DecimalFormat)) {
+            return null;
+        }
+        DecimalFormat decimalFormat = (DecimalFormat) numberFormat;
+        boolean plainSigns = decimalFormat.getPositivePrefix().isEmpty() && decimalFormat.getPositiveSuffix().isEmpty()
+                && "-".equals(decimalFormat.getNegativePrefix()) && decimalFormat.getNegativeSuffix().isEmpty();
+        if (!plainSigns) {
+            return null;
+        }
+        DecimalFormatSymbols symbols = decimalFormat.getDecimalFormatSymbols();
+        boolean dotDecimals = symbols.getDecimalSeparator() == '.' && symbols.getGroupingSeparator() != '.';
+
+        if (Integer.class.equals(type) || int.class.equals(type)) {
+            return value -> isPlainInteger(value, MAX_INT_DIGITS) ? Integer.valueOf(Integer.parseInt(value)) : fallback.apply(value);
+        }
+        if (Long.class.equals(type) || long.class.equals(type)) {
+            return value -> isPlainInteger(value, MAX_LONG_DIGITS) ? Long.valueOf(Long.parseLong(value)) : fallback.apply(value);
+        }
+        if (Double.class.equals(type) || double.class.equals(type)) {
+            return value -> isPlainDecimal(value, dotDecimals) ? Double.valueOf(Double.parseDouble(value)) : fallback.apply(value);
+        }
+        if (Float.class.equals(type) || float.class.equals(type)) {
+            //The XStream converter parses a double and narrows it
+            return value -> isPlainDecimal(value, dotDecimals) ? Float.valueOf((float) Double.parseDouble(value)) : fallback.apply(value);
+        }
+        return null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ConversionPlans.ArgumentConverter enumConverter(Class<?> type, Function<String, Object> fallback) {
+        Map<String, Object> constants = new HashMap<>();
+        for (Enum<?> constant : ((Class<? extends Enum<?>>) type).getEnumConstants()) {
+            constants.put(constant.name(), constant);
+        }
+        return value -> {
+            Object constant = value == null ? null : constants.get(value);
+            return constant != null ? constant : fallback.apply(value);
+        };
+    }
+
+    private static boolean isPlainInteger(String value, int maxDigits) {
+        if (value == null) {
+            return false;
+        }
+        int start = value.startsWith("-") ? 1 : 0;
+        int digits = value.length() - start;
+        if (digits < 1 || digits > maxDigits) {
+            return false;
+        }
+        for (int i = start; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isPlainDecimal(String value, boolean dotDecimals) {
+        if (value == null) {
+            return false;
+        }
+        int dot = dotDecimals ? value.indexOf('.') : -1;
+        if (dot < 0) {
+            return isPlainInteger(value, MAX_DECIMAL_DIGITS);
+        }
+        String integerPart = value.substring(0, dot);
+        String fraction = value.substring(dot + 1);
+        return isPlainInteger(integerPart, MAX_DECIMAL_DIGITS) && !fraction.startsWith("-")
+                && isPlainInteger(fraction, MAX_DECIMAL_DIGITS);
+    }
+}
@@ -0,0 +1,56 @@
+package test.java.framework.manager.cucumber.runtime;
+
+import test.java.framework.manager.cucumber.runtime.io.ResourceLoader;
+import test.java.framework.manager.cucumber.runtime.xstream.LocalizedXStreams;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Backends and glue loaded once per JVM and glue path, then shared by all runtimes.
+ * Scanning the classpath for backends and step definitions is done by the first runtime only,
+ * the others get a frozen {@link RuntimeGlue} to build their own view on.
+ */
+public class SharedGlue {
+    private static final Map<List<String>, SharedGlue> cache = new ConcurrentHashMap<>();
+
+    private final Collection<? extends Backend> backends;
+    private final RuntimeGlue glue;
+
+    private SharedGlue(Collection<? extends Backend> backends, RuntimeGlue glue) {
+        this.backends = backends;
+        this.glue = glue;
+    }
+
+    public static SharedGlue get(ResourceLoader resourceLoader, ClassFinder classFinder, ClassLoader classLoader, List<String> gluePaths) {
+        return cache.computeIfAbsent(new ArrayList<>(gluePaths), paths -> load(resourceLoader, classFinder, classLoader, paths));
+    }
+
+    private static SharedGlue load(ResourceLoader resourceLoader, ClassFinder classFinder, ClassLoader classLoader, List<String> gluePaths) {
+        Collection<? extends Backend> backends = Runtime.loadBackends(resourceLoader, classFinder);
+        RuntimeGlue glue = new RuntimeGlue(new UndefinedStepsTracker(), new LocalizedXStreams(classLoader));
+        for (Backend backend : backends) {
+            backend.loadGlue(glue, gluePaths);
+        }
+        glue.freeze();
+        return new SharedGlue(backends, glue);
+    }
+
+    static void printMatchCacheStats(PrintStream out) {
+        for (SharedGlue sharedGlue : cache.values()) {
+            sharedGlue.glue.printMatchCacheStats(out);
+        }
+    }
+
+    public Collection<? extends Backend> getBackends() {
+        return backends;
+    }
+
+    public RuntimeGlue getGlue() {
+        return glue;
+    }
+}
@@ -0,0 +1,108 @@
+package test.java.framework.manager.cucumber.runtime;
+
+import java.util.*;
+
+/**
+ * Narrows the step definitions that can match a step before their regular expressions are run.
+ * <p>
+ * Patterns are matched from the start of the step text, so a step can only match a pattern whose literal
+ * prefix (the text before the first regex construct) it starts with. The prefixes are kept in a trie, walking
+ * it along the step text yields all candidates. Patterns without a usable prefix, e.g. with alternation at the
+ * top level, are candidates for every step. Candidates are returned in glue order, so matching a step still
+ * gives the same matches in the same order as running every pattern.
+ */
+class StepDefinitionIndex {
+
+    private static final String METACHARACTERS = "\\[](){}.^$|?*+";
+
+    private final StepDefinition[] definitions;
+    private final Node root = new Node();
+
+    /**
+     * @param definitionsInOrder all step definitions, in the order matches are reported
+     */
+    StepDefinitionIndex(Collection<StepDefinition> definitionsInOrder) {
+        definitions = definitionsInOrder.toArray(new StepDefinition[definitionsInOrder.size()]);
+        for (int i = 0; i < definitions.length; i++) {
+            Node node = root;
+            for (char c : literalPrefix(definitions[i].getPattern()).toCharArray()) {
+                node = node.children.computeIfAbsent(c, key -> new Node());
+            }
+            node.definitions.add(i);
+        }
+    }
+
+    /**
+     * @param stepName text of the step
+     * @return step definitions that may match the step, in glue order
+     */
+    List<StepDefinition> candidates(String stepName) {
+        List<Integer> found = new ArrayList<>(root.definitions);
+        Node node = root;
+        for (int i = 0; i < stepName.length(); i++) {
+            node = node.children.get(stepName.charAt(i));
+            if (node == null) {
+                break;
+            }
+            found.addAll(node.definitions);
+        }
+        Collections.sort(found);
+
+        List<StepDefinition> candidates = new ArrayList<>(found.size());
+        for (int index : found) {
+            candidates.add(definitions[index]);
+        }
+        return candidates;
+    }
+
+    /**
+     * @param regex step definition pattern
+     * @return text every step matched by the pattern starts with, empty if not known
+     */
+    static String literalPrefix(String regex) {
+        if (hasTopLevelAlternation(regex)) {
+            return "";
+        }
+        StringBuilder prefix = new StringBuilder();
+        for (int i = regex.startsWith("^") ? 1 : 0; i < regex.length(); i++) {
+            char c = regex.charAt(i);
+            if (METACHARACTERS.indexOf(c) >= 0) {
+                //The last literal is optional if followed by one of these
+                if ((c == '?' || c == '*' || c == '{') && prefix.length() > 0) {
+                    prefix.setLength(prefix.length() - 1);
+                }
+                break;
+            }
+            prefix.append(c);
+        }
+        return prefix.toString();
+    }
+
+    private static boolean hasTopLevelAlternation(String regex) {
+        int depth = 0;
+        boolean inClass = false;
+        for (int i = 0; i < regex.length(); i++) {
+            char c = regex.charAt(i);
+            if (c == '\\') {
+                i++;
+            } else if (inClass) {
+                inClass = c != ']';
+            } else if (c == '[') {
+                inClass = true;
+            } else if (c == '(') {
+                depth++;
+            } else if (c == ')') {
+                depth--;
+            } else if (c == '|' && depth == 0) {
+                return true;
+            }
+        }
+        //Unbalanced pattern, don't guess
+        return depth != 0 || inClass;
+    }
+
+    private static class Node {
+        private final Map<Character, Node> children = new HashMap<>();
+        private final List<Integer> definitions = new ArrayList<>();
+    }
+}
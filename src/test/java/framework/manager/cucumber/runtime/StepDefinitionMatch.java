@@ -4,13 +4,11 @@ import gherkin.I18n;
 import gherkin.formatter.Argument;
 import gherkin.formatter.model.Match;
 import gherkin.formatter.model.Step;
-import test.java.framework.manager.cucumber.api.DataTable;
-import test.java.framework.manager.cucumber.runtime.table.TableConverter;
 import test.java.framework.manager.cucumber.runtime.xstream.LocalizedXStreams;
 
-import java.lang.reflect.Type;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
 
 import static gherkin.util.FixJava.map;
 
@@ -20,19 +18,23 @@ public class StepDefinitionMatch extends Match {
     // The official JSON gherkin format doesn't have a step attribute, so we're marking this as transient
     // to prevent it from ending up in the JSON.
     private transient Step step;
-    private final LocalizedXStreams localizedXStreams;
+    private final transient ConversionPlans conversionPlans;
 
     public StepDefinitionMatch(List<Argument> arguments, StepDefinition stepDefinition, String featurePath, Step step, LocalizedXStreams localizedXStreams) {
+        this(arguments, stepDefinition, featurePath, step, new ConversionPlans(localizedXStreams));
+    }
+
+    public StepDefinitionMatch(List<Argument> arguments, StepDefinition stepDefinition, String featurePath, Step step, ConversionPlans conversionPlans) {
         super(arguments, stepDefinition.getLocation(false));
         this.stepDefinition = stepDefinition;
         this.featurePath = featurePath;
         this.step = step;
-        this.localizedXStreams = localizedXStreams;
+        this.conversionPlans = conversionPlans;
     }
 
     public void runStep(I18n i18n) throws Throwable {
         try {
-            stepDefinition.execute(i18n, transformedArgs(step, localizedXStreams.get(i18n.getLocale())));
+            stepDefinition.execute(i18n, transformedArgs(step, i18n.getLocale()));
         } catch (CucumberException e) {
             throw e;
         } catch (Throwable t) {
@@ -41,11 +43,11 @@ public class StepDefinitionMatch extends Match {
     }
 
     /**
-     * @param step    the step to run
-     * @param xStream used to convert a string to declared stepdef arguments
+     * @param step   the step to run
+     * @param locale locale of the feature, picks the converters
      * @return an Array matching the types or {@code parameterTypes}, or an array of String if {@code parameterTypes} is null
      */
-    private Object[] transformedArgs(Step step, LocalizedXStreams.LocalizedXStream xStream) {
+    private Object[] transformedArgs(Step step, Locale locale) {
         int argumentCount = getArguments().size();
 
         if (step.getRows() != null) {
@@ -58,39 +60,7 @@ public class StepDefinitionMatch extends Match {
             throw arityMismatch(parameterCount);
         }
 
-        List<Object> result = new ArrayList<>();
-
-        int n = 0;
-        for (Argument a : getArguments()) {
-            ParameterInfo parameterInfo = getParameterType(n, String.class);
-            Object arg = parameterInfo.convert(a.getVal(), xStream);
-            result.add(arg);
-            n++;
-        }
-
-        if (step.getRows() != null) {
-            result.add(tableArgument(step, n, xStream));
-        } else if (step.getDocString() != null) {
-            result.add(step.getDocString().getValue());
-        }
-        return result.toArray(new Object[result.size()]);
-    }
-
-    private ParameterInfo getParameterType(int n, Type argumentType) {
-        ParameterInfo parameterInfo = stepDefinition.getParameterType(n, argumentType);
-        if (parameterInfo == null) {
-            // Some backends return null because they don't know
-            parameterInfo = new ParameterInfo(argumentType, null, null, false, null);
-        }
-        return parameterInfo;
-    }
-
-    private Object tableArgument(Step step, int argIndex, LocalizedXStreams.LocalizedXStream xStream) {
-        ParameterInfo parameterInfo = getParameterType(argIndex, DataTable.class);
-        TableConverter tableConverter = new TableConverter(xStream, parameterInfo);
-        DataTable table = new DataTable(step.getRows(), tableConverter);
-        Type type = parameterInfo.getType();
-        return tableConverter.convert(table, type, parameterInfo.isTransposed());
+        return conversionPlans.get(stepDefinition, locale, getArguments().size()).convert(getArguments(), step);
     }
 
     private CucumberException arityMismatch(int parameterCount) {
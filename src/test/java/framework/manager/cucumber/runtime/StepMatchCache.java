@@ -0,0 +1,79 @@
+package test.java.framework.manager.cucumber.runtime;
+
+import gherkin.formatter.Argument;
+
+import java.io.PrintStream;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Step definitions and arguments resolved for a step text, shared by all runtimes using the same glue.
+ * <p>
+ * The same step texts run thousands of times, only the first run of a text matches it against the patterns.
+ * At most {@code -DstepMatchCacheSize} texts (default 10000) are kept, texts beyond that are matched every time.
+ * The cache is cleared whenever a step definition is added to the glue.
+ */
+class StepMatchCache {
+
+    private final int maxSize;
+    private final Map<String, List<Resolved>> resolvedByText = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    StepMatchCache() {
+        this(Integer.parseInt(System.getProperty("stepMatchCacheSize", "10000")));
+    }
+
+    StepMatchCache(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * @param stepName text of the step
+     * @param resolver matches the step text against all step definitions, called on cache miss
+     * @return step definitions matching the text with their arguments, in glue order
+     */
+    List<Resolved> get(String stepName, Function<String, List<Resolved>> resolver) {
+        List<Resolved> resolved = resolvedByText.get(stepName);
+        if (resolved != null) {
+            hits.increment();
+            return resolved;
+        }
+        misses.increment();
+        resolved = Collections.unmodifiableList(resolver.apply(stepName));
+        if (resolvedByText.size() < maxSize) {
+            resolvedByText.putIfAbsent(stepName, resolved);
+        }
+        return resolved;
+    }
+
+    void clear() {
+        resolvedByText.clear();
+    }
+
+    void printStats(PrintStream out) {
+        long hitCount = hits.sum();
+        long total = hitCount + misses.sum();
+        if (total > 0) {
+            out.println(String.format("Step match cache: %d hits, %d misses (%.1f%% hit rate), %d step texts",
+                    hitCount, total - hitCount, 100.0 * hitCount / total, resolvedByText.size()));
+        }
+    }
+
+    /**
+     * Step definition matching a step text, and the arguments found in the text
+     */
+    static final class Resolved {
+        final StepDefinition stepDefinition;
+        final List<Argument> arguments;
+
+        Resolved(StepDefinition stepDefinition, List<Argument> arguments) {
+            this.stepDefinition = stepDefinition;
+            this.arguments = Collections.unmodifiableList(arguments);
+        }
+    }
+}
@@ -1,9 +1,32 @@
 package test.java.framework.manager.cucumber.runtime;
 
+import java.io.PrintStream;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
 
+/**
+ * Interrupts steps and hooks that run longer than their timeout.
+ * <p>
+ * All timeouts of the JVM share one daemon timer thread, a call only adds a timer task and cancels it when done.
+ * Cancelled tasks are removed from the timer queue right away, so the queue only holds calls that are running.
+ */
 public class Timeout {
+    private static final ScheduledThreadPoolExecutor timer = newTimer();
+    private static final LongAdder calls = new LongAdder();
+    private static final LongAdder expired = new LongAdder();
+    private static final LongAdder timedOut = new LongAdder();
+
+    private static ScheduledThreadPoolExecutor newTimer() {
+        ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "cucumber-timeout");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.setRemoveOnCancelPolicy(true);
+        return executor;
+    }
+
     public static <T> T timeout(Callback<T> callback, long timeoutMillis) throws Throwable {
         if (timeoutMillis == 0) {
             return callback.call();
@@ -11,22 +34,33 @@ public class Timeout {
             final Thread executionThread = Thread.currentThread();
             final AtomicBoolean done = new AtomicBoolean();
 
-            ScheduledExecutorService executorService = Executors.newSingleThreadScheduledExecutor();
-            ScheduledFuture<?> timer = executorService.schedule(() -> {
+            calls.increment();
+            ScheduledFuture<?> timerTask = timer.schedule(() -> {
                 if (!done.get()) {
+                    expired.increment();
                     executionThread.interrupt();
                 }
             }, timeoutMillis, TimeUnit.MILLISECONDS);
             try {
                 return callback.call();
             } catch (InterruptedException timeout) {
+                timedOut.increment();
                 throw new TimeoutException("Timed out after " + timeoutMillis + "ms.");
             } finally {
                 done.set(true);
-                timer.cancel(true);
-                executorService.shutdownNow();
+                timerTask.cancel(false);
             }
+        }
+    }
 
+    /**
+     * Prints how many calls had a timeout, how many were interrupted and how many failed with a {@link TimeoutException}
+     */
+    public static void printStats(PrintStream out) {
+        long callCount = calls.sum();
+        if (callCount > 0) {
+            out.println(String.format("Timeouts: %d calls with a timeout, %d interrupted, %d timed out",
+                    callCount, expired.sum(), timedOut.sum()));
         }
     }
 
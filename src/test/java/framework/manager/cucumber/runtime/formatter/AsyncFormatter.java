@@ -0,0 +1,264 @@
+package test.java.framework.manager.cucumber.runtime.formatter;
+
+import gherkin.formatter.Formatter;
+import gherkin.formatter.Reporter;
+import gherkin.formatter.model.*;
+import test.java.framework.manager.cucumber.runtime.CucumberException;
+
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs a formatter on its own writer thread, so writing reports doesn't add to the time of the steps.
+ * <p>
+ * Enabled with {@code -DasyncReporting=true} for the formatters given in cucumber.options. Every event is put into a
+ * bounded buffer of {@code -DasyncReportingBuffer} events (default 1024) and passed to the formatter in the same order
+ * by the writer thread. When the buffer is full the step thread waits, with {@code -DasyncReportingBackpressure=drop-embeddings}
+ * embeddings (e.g. screenshots) are dropped instead of waiting. {@link #done()} and {@link #close()} return only once
+ * the formatter has handled all events before them, and throw the first error the formatter ran into.
+ * Events carry the model objects as they are, those are not changed after being reported.
+ */
+public class AsyncFormatter implements Formatter, Reporter {
+    private static final Runnable STOP = () -> {
+    };
+
+    private final Formatter formatter;
+    private final Reporter reporter;
+    private final BlockingQueue<Runnable> events;
+    private final boolean dropEmbeddings;
+    private final Thread writer;
+    private final AtomicLong droppedEmbeddings = new AtomicLong();
+    private volatile Throwable failure;
+    private volatile boolean closed;
+
+    AsyncFormatter(Formatter formatter, int capacity, boolean dropEmbeddings) {
+        this.formatter = formatter;
+        this.reporter = formatter instanceof Reporter ? (Reporter) formatter : null;
+        this.events = new ArrayBlockingQueue<>(capacity);
+        this.dropEmbeddings = dropEmbeddings;
+        this.writer = new Thread(this::drain, "async-formatter-" + formatter.getClass().getSimpleName());
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    public static boolean isEnabled() {
+        return Boolean.getBoolean("asyncReporting");
+    }
+
+    /**
+     * @param formatter formatter to run on a writer thread
+     * @return formatter configured by -DasyncReportingBuffer and -DasyncReportingBackpressure
+     */
+    public static AsyncFormatter wrap(Formatter formatter) {
+        int capacity = Integer.parseInt(System.getProperty("asyncReportingBuffer", "1024"));
+        String backpressure = System.getProperty("asyncReportingBackpressure", "block");
+        if (capacity < 1 || !("block".equals(backpressure) || "drop-embeddings".equals(backpressure))) {
+            throw new CucumberException("Invalid async reporting settings: buffer " + capacity + ", backpressure '" + backpressure
+                    + "', expected a buffer of at least 1 and backpressure block or drop-embeddings");
+        }
+        return new AsyncFormatter(formatter, capacity, "drop-embeddings".equals(backpressure));
+    }
+
+    private void drain() {
+        while (true) {
+            Runnable event;
+            try {
+                event = events.take();
+            } catch (InterruptedException e) {
+                continue;
+            }
+            if (event == STOP) {
+                return;
+            }
+            try {
+                event.run();
+            } catch (Throwable t) {
+                if (failure == null) {
+                    failure = t;
+                }
+            }
+        }
+    }
+
+    private void publish(Runnable event) {
+        if (closed) {
+            event.run();
+        } else {
+            put(event);
+        }
+    }
+
+    private void put(Runnable event) {
+        boolean interrupted = false;
+        while (true) {
+            try {
+                events.put(event);
+                break;
+            } catch (InterruptedException e) {
+                // A step timeout may interrupt the thread, the event must not get lost
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void publishReporterEvent(Runnable event) {
+        if (reporter != null) {
+            publish(event);
+        }
+    }
+
+    /**
+     * Publishes the event and waits until the writer thread has handled it
+     */
+    private void flush(Runnable event) {
+        if (closed) {
+            event.run();
+            return;
+        }
+        CountDownLatch handled = new CountDownLatch(1);
+        publish(() -> {
+            try {
+                event.run();
+            } finally {
+                handled.countDown();
+            }
+        });
+        boolean interrupted = false;
+        while (true) {
+            try {
+                handled.await();
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        long dropped = droppedEmbeddings.getAndSet(0);
+        if (dropped > 0) {
+            System.err.println("Dropped " + dropped + " embedding(s) for " + formatter.getClass().getSimpleName() + ", the report buffer was full");
+        }
+        if (failure != null) {
+            throw new CucumberException("Formatter " + formatter.getClass().getName() + " failed", failure);
+        }
+    }
+
+    @Override
+    public void syntaxError(String state, String event, List<String> legalEvents, String uri, Integer line) {
+        publish(() -> formatter.syntaxError(state, event, legalEvents, uri, line));
+    }
+
+    @Override
+    public void uri(String uri) {
+        publish(() -> formatter.uri(uri));
+    }
+
+    @Override
+    public void feature(Feature feature) {
+        publish(() -> formatter.feature(feature));
+    }
+
+    @Override
+    public void scenarioOutline(ScenarioOutline scenarioOutline) {
+        publish(() -> formatter.scenarioOutline(scenarioOutline));
+    }
+
+    @Override
+    public void examples(Examples examples) {
+        publish(() -> formatter.examples(examples));
+    }
+
+    @Override
+    public void startOfScenarioLifeCycle(Scenario scenario) {
+        publish(() -> formatter.startOfScenarioLifeCycle(scenario));
+    }
+
+    @Override
+    public void background(Background background) {
+        publish(() -> formatter.background(background));
+    }
+
+    @Override
+    public void scenario(Scenario scenario) {
+        publish(() -> formatter.scenario(scenario));
+    }
+
+    @Override
+    public void step(Step step) {
+        publish(() -> formatter.step(step));
+    }
+
+    @Override
+    public void endOfScenarioLifeCycle(Scenario scenario) {
+        publish(() -> formatter.endOfScenarioLifeCycle(scenario));
+    }
+
+    @Override
+    public void eof() {
+        publish(formatter::eof);
+    }
+
+    @Override
+    public void done() {
+        flush(formatter::done);
+    }
+
+    @Override
+    public void close() {
+        if (closed) {
+            formatter.close();
+            return;
+        }
+        try {
+            flush(formatter::close);
+        } finally {
+            closed = true;
+            put(STOP);
+        }
+    }
+
+    @Override
+    public void before(Match match, Result result) {
+        publishReporterEvent(() -> reporter.before(match, result));
+    }
+
+    @Override
+    public void result(Result result) {
+        publishReporterEvent(() -> reporter.result(result));
+    }
+
+    @Override
+    public void after(Match match, Result result) {
+        publishReporterEvent(() -> reporter.after(match, result));
+    }
+
+    @Override
+    public void match(Match match) {
+        publishReporterEvent(() -> reporter.match(match));
+    }
+
+    @Override
+    public void embedding(String mimeType, byte[] data) {
+        if (reporter == null) {
+            return;
+        }
+        Runnable event = () -> reporter.embedding(mimeType, data);
+        if (!dropEmbeddings || closed) {
+            publish(event);
+        } else if (!events.offer(event)) {
+            droppedEmbeddings.incrementAndGet();
+        }
+    }
+
+    @Override
+    public void write(String text) {
+        publishReporterEvent(() -> reporter.write(text));
+    }
+}
@@ -0,0 +1,168 @@
+package test.java.framework.manager.cucumber.runtime.formatter;
+
+import gherkin.formatter.Formatter;
+import gherkin.formatter.Reporter;
+import gherkin.formatter.model.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Passes every formatter event to all formatters of a runtime, and every reporter event to those that are also
+ * reporters, in the order they were added. Calls them directly, one instance serves the whole run.
+ */
+public class CompositeFormatter implements Formatter, Reporter {
+    private volatile Formatter[] formatters;
+    private volatile Reporter[] reporters;
+
+    public CompositeFormatter(List<Formatter> formatters) {
+        setFormatters(formatters);
+    }
+
+    /**
+     * @param formatters formatters to pass events to from now on
+     */
+    public void setFormatters(List<Formatter> formatters) {
+        List<Reporter> reporterList = new ArrayList<>();
+        for (Formatter formatter : formatters) {
+            if (formatter instanceof Reporter) {
+                reporterList.add((Reporter) formatter);
+            }
+        }
+        this.reporters = reporterList.toArray(new Reporter[reporterList.size()]);
+        this.formatters = formatters.toArray(new Formatter[formatters.size()]);
+    }
+
+    @Override
+    public void syntaxError(String state, String event, List<String> legalEvents, String uri, Integer line) {
+        for (Formatter formatter : formatters) {
+            formatter.syntaxError(state, event, legalEvents, uri, line);
+        }
+    }
+
+    @Override
+    public void uri(String uri) {
+        for (Formatter formatter : formatters) {
+            formatter.uri(uri);
+        }
+    }
+
+    @Override
+    public void feature(Feature feature) {
+        for (Formatter formatter : formatters) {
+            formatter.feature(feature);
+        }
+    }
+
+    @Override
+    public void scenarioOutline(ScenarioOutline scenarioOutline) {
+        for (Formatter formatter : formatters) {
+            formatter.scenarioOutline(scenarioOutline);
+        }
+    }
+
+    @Override
+    public void examples(Examples examples) {
+        for (Formatter formatter : formatters) {
+            formatter.examples(examples);
+        }
+    }
+
+    @Override
+    public void startOfScenarioLifeCycle(Scenario scenario) {
+        for (Formatter formatter : formatters) {
+            formatter.startOfScenarioLifeCycle(scenario);
+        }
+    }
+
+    @Override
+    public void background(Background background) {
+        for (Formatter formatter : formatters) {
+            formatter.background(background);
+        }
+    }
+
+    @Override
+    public void scenario(Scenario scenario) {
+        for (Formatter formatter : formatters) {
+            formatter.scenario(scenario);
+        }
+    }
+
+    @Override
+    public void step(Step step) {
+        for (Formatter formatter : formatters) {
+            formatter.step(step);
+        }
+    }
+
+    @Override
+    public void endOfScenarioLifeCycle(Scenario scenario) {
+        for (Formatter formatter : formatters) {
+            formatter.endOfScenarioLifeCycle(scenario);
+        }
+    }
+
+    @Override
+    public void done() {
+        for (Formatter formatter : formatters) {
+            formatter.done();
+        }
+    }
+
+    @Override
+    public void close() {
+        for (Formatter formatter : formatters) {
+            formatter.close();
+        }
+    }
+
+    @Override
+    public void eof() {
+        for (Formatter formatter : formatters) {
+            formatter.eof();
+        }
+    }
+
+    @Override
+    public void before(Match match, Result result) {
+        for (Reporter reporter : reporters) {
+            reporter.before(match, result);
+        }
+    }
+
+    @Override
+    public void result(Result result) {
+        for (Reporter reporter : reporters) {
+            reporter.result(result);
+        }
+    }
+
+    @Override
+    public void after(Match match, Result result) {
+        for (Reporter reporter : reporters) {
+            reporter.after(match, result);
+        }
+    }
+
+    @Override
+    public void match(Match match) {
+        for (Reporter reporter : reporters) {
+            reporter.match(match);
+        }
+    }
+
+    @Override
+    public void embedding(String mimeType, byte[] data) {
+        for (Reporter reporter : reporters) {
+            reporter.embedding(mimeType, data);
+        }
+    }
+
+    @Override
+    public void write(String text) {
+        for (Reporter reporter : reporters) {
+            reporter.write(text);
+        }
+    }
+}
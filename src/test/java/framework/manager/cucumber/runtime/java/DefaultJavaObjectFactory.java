@@ -8,16 +8,20 @@ import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
 
+/**
+ * Glue is shared by all runtimes of the JVM, so the glue instances live per thread.
+ * Each thread gets its own world from {@link #start()} to {@link #stop()}.
+ */
 class DefaultJavaObjectFactory implements test.java.framework.manager.cucumber.runtime.java.ObjectFactory {
     private final Set<Class<?>> classes = new HashSet<>();
-    private final Map<Class<?>, Object> instances = new HashMap<>();
+    private final ThreadLocal<Map<Class<?>, Object>> instances = ThreadLocal.withInitial(HashMap::new);
 
     public void start() {
         // No-op
     }
 
     public void stop() {
-        instances.clear();
+        instances.get().clear();
     }
 
     public void addClass(Class<?> clazz) {
@@ -25,7 +29,7 @@ class DefaultJavaObjectFactory implements test.java.framework.manager.cucumber.r
     }
 
     public <T> T getInstance(Class<T> type) {
-        T instance = type.cast(instances.get(type));
+        T instance = type.cast(instances.get().get(type));
         if (instance == null) {
             instance = cacheNewInstance(type);
         }
@@ -36,7 +40,7 @@ class DefaultJavaObjectFactory implements test.java.framework.manager.cucumber.r
         try {
             Constructor<T> constructor = type.getConstructor();
             T instance = constructor.newInstance();
-            instances.put(type, instance);
+            instances.get().put(type, instance);
             return instance;
         } catch (NoSuchMethodException e) {
             throw new CucumberException(String.format("%s doesn't have an empty constructor. If you need DI, put cucumber-picocontainer on the classpath", type), e);
@@ -11,12 +11,13 @@ import test.java.framework.manager.cucumber.runtime.io.Resource;
 import test.java.framework.manager.cucumber.runtime.io.ResourceLoader;
 
 import java.io.PrintStream;
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.Comparator;
-import java.util.List;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class CucumberFeature {
+    //Features are parsed once per JVM and shared (read only) by all threads
+    private static final Map<List<String>, List<CucumberFeature>> featuresCache = new ConcurrentHashMap<>();
+
     private final String path;
     private final Feature feature;
     private CucumberBackground cucumberBackground;
@@ -39,7 +40,22 @@ public class CucumberFeature {
         return cucumberFeatures;
     }
 
+    /**
+     * Load features matching the filters. Features are read and parsed only on the first call for the given paths and filters,
+     * subsequent calls, from any thread, get the same unmodifiable list.
+     *
+     * @param resourceLoader loader for feature files
+     * @param featurePaths   paths to feature files or directories
+     * @param filters        tags, name patterns or lines
+     * @return unmodifiable list of features sorted by path
+     */
     public static List<CucumberFeature> load(ResourceLoader resourceLoader, List<String> featurePaths, final List<Object> filters) {
+        List<String> key = new ArrayList<>(featurePaths);
+        key.add(filters.toString());
+        return featuresCache.computeIfAbsent(key, k -> Collections.unmodifiableList(parse(resourceLoader, featurePaths, filters)));
+    }
+
+    private static List<CucumberFeature> parse(ResourceLoader resourceLoader, List<String> featurePaths, final List<Object> filters) {
         final List<CucumberFeature> cucumberFeatures = new ArrayList<CucumberFeature>();
         final FeatureBuilder builder = new FeatureBuilder(cucumberFeatures);
         for (String featurePath : featurePaths) {
@@ -125,7 +141,7 @@ public class CucumberFeature {
     }
 
     public List<CucumberTagStatement> getFeatureElements() {
-        return cucumberTagStatements;
+        return Collections.unmodifiableList(cucumberTagStatements);
     }
 
     public void setI18n(I18n i18n) {
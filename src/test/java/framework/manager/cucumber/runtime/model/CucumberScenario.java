@@ -45,8 +45,7 @@ public class CucumberScenario extends CucumberTagStatement {
 
         runBackground(formatter, reporter, runtime);
 
-        format(formatter);
-        runSteps(reporter, runtime);
+        runSteps(format(formatter), reporter, runtime);
 
         runtime.runAfterHooks(reporter, tags);
         try {
@@ -59,8 +58,7 @@ public class CucumberScenario extends CucumberTagStatement {
 
     private void runBackground(Formatter formatter, Reporter reporter, Runtime runtime) {
         if (cucumberBackground != null) {
-            cucumberBackground.format(formatter);
-            cucumberBackground.runSteps(reporter, runtime);
+            cucumberBackground.runSteps(cucumberBackground.format(formatter), reporter, runtime);
         }
     }
 }
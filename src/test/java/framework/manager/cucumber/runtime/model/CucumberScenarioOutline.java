@@ -6,14 +6,14 @@ import gherkin.formatter.model.*;
 import test.java.framework.manager.cucumber.runtime.CucumberException;
 import test.java.framework.manager.cucumber.runtime.Runtime;
 
-import java.util.ArrayList;
-import java.util.HashSet;
-import java.util.List;
-import java.util.Set;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class CucumberScenarioOutline extends CucumberTagStatement {
     private final List<CucumberExamples> cucumberExamplesList = new ArrayList<CucumberExamples>();
     private final CucumberBackground cucumberBackground;
+    // By header of the examples tables, holds no template when the header can't be compiled
+    private final Map<List<String>, Optional<OutlineTemplate>> templates = new ConcurrentHashMap<List<String>, Optional<OutlineTemplate>>();
 
     public CucumberScenarioOutline(CucumberFeature cucumberFeature, CucumberBackground cucumberBackground, ScenarioOutline scenarioOutline) {
         super(cucumberFeature, scenarioOutline);
@@ -25,7 +25,16 @@ public class CucumberScenarioOutline extends CucumberTagStatement {
     }
 
     public List<CucumberExamples> getCucumberExamplesList() {
-        return cucumberExamplesList;
+        return Collections.unmodifiableList(cucumberExamplesList);
+    }
+
+    /**
+     * Reports the outline itself, without running any of its examples
+     *
+     * @param formatter formatter to report the outline to
+     */
+    public void formatOutline(Formatter formatter) {
+        format(formatter);
     }
 
     @Override
@@ -41,13 +50,25 @@ public class CucumberScenarioOutline extends CucumberTagStatement {
     }
 
     CucumberScenario createExampleScenario(ExamplesTableRow header, ExamplesTableRow example, List<Tag> examplesTags) {
+        OutlineTemplate template = templates.computeIfAbsent(header.getCells(),
+                headerCells -> Optional.ofNullable(OutlineTemplate.compile(getGherkinModel().getName(), getSteps(), headerCells)))
+                .filter(compiled -> OutlineTemplate.canRender(example.getCells()))
+                .orElse(null);
+
         // Make sure we replace the tokens in the name of the scenario
-        String exampleScenarioName = replaceTokens(new HashSet<Integer>(), header.getCells(), example.getCells(), getGherkinModel().getName());
+        String exampleScenarioName = template != null ? template.scenarioName(example.getCells())
+                : replaceTokens(new HashSet<Integer>(), header.getCells(), example.getCells(), getGherkinModel().getName());
 
         Scenario exampleScenario = new Scenario(example.getComments(), examplesTags, getGherkinModel().getKeyword(), exampleScenarioName, "", example.getLine(), example.getId());
         CucumberScenario cucumberScenario = new CucumberScenario(cucumberFeature, cucumberBackground, exampleScenario, example);
-        for (Step step : getSteps()) {
-            cucumberScenario.step(createExampleStep(step, header, example));
+        if (template != null) {
+            for (ExampleStep exampleStep : template.exampleSteps(example.getCells())) {
+                cucumberScenario.step(exampleStep);
+            }
+        } else {
+            for (Step step : getSteps()) {
+                cucumberScenario.step(createExampleStep(step, header, example));
+            }
         }
         return cucumberScenario;
     }
@@ -28,7 +28,7 @@ public abstract class CucumberTagStatement extends StepContainer {
         this.visualName = "| " + join(example.getCells(), " | ") + " |";
     }
 
-    protected Set<Tag> tagsAndInheritedTags() {
+    public Set<Tag> tagsAndInheritedTags() {
         Set<Tag> tags = new HashSet<>();
         tags.addAll(cucumberFeature.getGherkinFeature().getTags());
         tags.addAll(gherkinModel.getTags());
@@ -0,0 +1,266 @@
+package test.java.framework.manager.cucumber.runtime.model;
+
+import gherkin.formatter.model.DataTableRow;
+import gherkin.formatter.model.DocString;
+import gherkin.formatter.model.Step;
+import test.java.framework.manager.cucumber.runtime.CucumberException;
+
+import java.util.*;
+
+/**
+ * The scenario name and steps of a scenario outline compiled for the header of an examples table: every text is split
+ * into literal segments and references to the columns of its {@code <placeholders>}, so an example only fills in its
+ * cells. The columns each step uses are worked out once and shared by the steps of all examples.
+ * <p>
+ * Gives the same texts as replacing the placeholders one column after the other as long as no replaced value can
+ * become part of another placeholder. That is the case when neither header nor example cells contain angle brackets
+ * and no placeholder sits between a '&lt;' and a '&gt;', like {@code <<name>>}. {@link #compile} returns null for
+ * such a header or outline and {@link #canRender} is false for such an example.
+ */
+class OutlineTemplate {
+    private final Text scenarioName;
+    private final List<StepTemplate> steps;
+
+    private OutlineTemplate(Text scenarioName, List<StepTemplate> steps) {
+        this.scenarioName = scenarioName;
+        this.steps = steps;
+    }
+
+    /**
+     * @param scenarioName name of the scenario outline
+     * @param steps        steps of the scenario outline
+     * @param headerCells  header of the examples table
+     * @return template for the header, or null if the placeholders have to be replaced one by one
+     */
+    static OutlineTemplate compile(String scenarioName, List<Step> steps, List<String> headerCells) {
+        Map<String, Integer> columnsByName = new HashMap<String, Integer>();
+        for (int col = 0; col < headerCells.size(); col++) {
+            String headerCell = headerCells.get(col);
+            if (hasAngleBracket(headerCell)) {
+                return null;
+            }
+            // With duplicate headers the first column is used, like replacing column by column
+            columnsByName.putIfAbsent(headerCell, col);
+        }
+
+        try {
+            List<StepTemplate> stepTemplates = new ArrayList<StepTemplate>(steps.size());
+            for (Step step : steps) {
+                stepTemplates.add(new StepTemplate(step, columnsByName));
+            }
+            return new OutlineTemplate(Text.compile(scenarioName, columnsByName, new HashSet<Integer>()), stepTemplates);
+        } catch (NotCompilable e) {
+            return null;
+        }
+    }
+
+    /**
+     * @param exampleCells cells of an example row
+     * @return whether the template gives the same texts as replacing the placeholders one by one
+     */
+    static boolean canRender(List<String> exampleCells) {
+        for (String cell : exampleCells) {
+            if (hasAngleBracket(cell)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean hasAngleBracket(String text) {
+        return text.indexOf('<') >= 0 || text.indexOf('>') >= 0;
+    }
+
+    String scenarioName(List<String> exampleCells) {
+        return scenarioName.render(exampleCells);
+    }
+
+    List<ExampleStep> exampleSteps(List<String> exampleCells) {
+        List<ExampleStep> exampleSteps = new ArrayList<ExampleStep>(steps.size());
+        for (StepTemplate step : steps) {
+            exampleSteps.add(step.render(exampleCells));
+        }
+        return exampleSteps;
+    }
+
+    private static class StepTemplate {
+        private final Step step;
+        private final Text name;
+        private final Text[][] cells;
+        private final Text docString;
+        private final Set<Integer> matchedColumns;
+
+        private StepTemplate(Step step, Map<String, Integer> columnsByName) {
+            Set<Integer> matchedColumns = new HashSet<Integer>();
+            this.step = step;
+            this.name = Text.compile(step.getName(), columnsByName, matchedColumns);
+            if (step.getRows() != null) {
+                List<DataTableRow> rows = step.getRows();
+                this.cells = new Text[rows.size()][];
+                for (int row = 0; row < cells.length; row++) {
+                    List<String> rowCells = rows.get(row).getCells();
+                    cells[row] = new Text[rowCells.size()];
+                    for (int col = 0; col < cells[row].length; col++) {
+                        cells[row][col] = Text.compile(rowCells.get(col), columnsByName, matchedColumns);
+                    }
+                }
+            } else {
+                this.cells = null;
+            }
+            this.docString = step.getDocString() != null ? Text.compile(step.getDocString().getValue(), columnsByName, matchedColumns) : null;
+            this.matchedColumns = Collections.unmodifiableSet(matchedColumns);
+        }
+
+        private ExampleStep render(List<String> exampleCells) {
+            String exampleName = name.render(exampleCells);
+            if (exampleName.isEmpty()) {
+                throw new CucumberException("Step generated from scenario outline '" + step.getName() + "' is empty");
+            }
+            return new ExampleStep(
+                    step.getComments(),
+                    step.getKeyword(),
+                    exampleName,
+                    step.getLine(),
+                    rows(exampleCells),
+                    docString(exampleCells),
+                    matchedColumns);
+        }
+
+        private List<DataTableRow> rows(List<String> exampleCells) {
+            if (cells == null) {
+                return null;
+            }
+            List<DataTableRow> rows = step.getRows();
+            List<DataTableRow> newRows = new ArrayList<DataTableRow>(cells.length);
+            for (int row = 0; row < cells.length; row++) {
+                List<String> newCells = new ArrayList<String>(cells[row].length);
+                for (Text cell : cells[row]) {
+                    newCells.add(cell.render(exampleCells));
+                }
+                DataTableRow outlineRow = rows.get(row);
+                newRows.add(new DataTableRow(outlineRow.getComments(), newCells, outlineRow.getLine()));
+            }
+            return newRows;
+        }
+
+        private DocString docString(List<String> exampleCells) {
+            if (docString == null) {
+                return null;
+            }
+            DocString outlineDocString = step.getDocString();
+            return new DocString(outlineDocString.getContentType(), docString.render(exampleCells), outlineDocString.getLine());
+        }
+    }
+
+    /**
+     * A text split into literal segments around column references: literals[0], columns[0], literals[1], ...
+     */
+    private static class Text {
+        private final String[] literals;
+        private final int[] columns;
+        private final int literalLength;
+
+        private Text(String[] literals, int[] columns) {
+            this.literals = literals;
+            this.columns = columns;
+            int length = 0;
+            for (String literal : literals) {
+                length += literal.length();
+            }
+            this.literalLength = length;
+        }
+
+        /**
+         * A placeholder is a '&lt;', a header and the first '&gt;' after it. Headers have no angle brackets, so each
+         * '&gt;' can only close a placeholder opened by the last '&lt;' before it.
+         */
+        private static Text compile(String text, Map<String, Integer> columnsByName, Set<Integer> matchedColumns) {
+            List<String> literals = new ArrayList<String>();
+            List<Integer> columns = new ArrayList<Integer>();
+            int literalStart = 0;
+            int from = 0;
+            int close;
+            while ((close = text.indexOf('>', from)) >= 0) {
+                int open = text.lastIndexOf('<', close);
+                if (open >= from) {
+                    Integer column = columnsByName.get(text.substring(open + 1, close));
+                    if (column != null) {
+                        literals.add(text.substring(literalStart, open));
+                        columns.add(column);
+                        matchedColumns.add(column);
+                        literalStart = close + 1;
+                    }
+                }
+                from = close + 1;
+            }
+            literals.add(text.substring(literalStart));
+
+            for (int i = 0; i < columns.size(); i++) {
+                if (nearestBracketBefore(literals, i) == '<' && nearestBracketAfter(literals, i) == '>') {
+                    throw new NotCompilable();
+                }
+            }
+
+            int[] columnArray = new int[columns.size()];
+            for (int i = 0; i < columnArray.length; i++) {
+                columnArray[i] = columns.get(i);
+            }
+            return new Text(literals.toArray(new String[literals.size()]), columnArray);
+        }
+
+        /**
+         * @return the last angle bracket in the literals before column reference i, 0 if there is none
+         */
+        private static char nearestBracketBefore(List<String> literals, int i) {
+            for (int n = i; n >= 0; n--) {
+                String literal = literals.get(n);
+                int bracket = Math.max(literal.lastIndexOf('<'), literal.lastIndexOf('>'));
+                if (bracket >= 0) {
+                    return literal.charAt(bracket);
+                }
+            }
+            return 0;
+        }
+
+        /**
+         * @return the first angle bracket in the literals after column reference i, 0 if there is none
+         */
+        private static char nearestBracketAfter(List<String> literals, int i) {
+            for (int n = i + 1; n < literals.size(); n++) {
+                String literal = literals.get(n);
+                for (int c = 0; c < literal.length(); c++) {
+                    if (literal.charAt(c) == '<' || literal.charAt(c) == '>') {
+                        return literal.charAt(c);
+                    }
+                }
+            }
+            return 0;
+        }
+
+        private String render(List<String> exampleCells) {
+            if (columns.length == 0) {
+                return literals[0];
+            }
+            String[] values = new String[columns.length];
+            int length = literalLength;
+            for (int i = 0; i < columns.length; i++) {
+                values[i] = exampleCells.get(columns[i]);
+                length += values[i].length();
+            }
+            StringBuilder result = new StringBuilder(length);
+            for (int i = 0; i < columns.length; i++) {
+                result.append(literals[i]).append(values[i]);
+            }
+            return result.append(literals[columns.length]).toString();
+        }
+    }
+
+    /**
+     * Thrown while compiling a text whose placeholders have to be replaced one by one
+     */
+    private static class NotCompilable extends RuntimeException {
+        private NotCompilable() {
+            super(null, null, false, false);
+        }
+    }
+}
@@ -11,14 +11,14 @@ import test.java.framework.helpers.OptionalSteps;
 import test.java.framework.manager.cucumber.runtime.Runtime;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 public class StepContainer {
 
-    private List<Step> steps = new ArrayList<>();
+    private final List<Step> steps = new ArrayList<>();
     final CucumberFeature cucumberFeature;
     private final BasicStatement statement;
-    private CucumberHelperPrototype helper;
     private static ManagerPrototype manager;
     private static OptionalSteps optionalSteps;
 
@@ -36,17 +36,24 @@ public class StepContainer {
     }
 
     public List<Step> getSteps() {
-        return steps;
+        return Collections.unmodifiableList(steps);
     }
 
     public void step(Step step) {
         steps.add(step);
     }
 
-    void format(Formatter formatter) {
+    /**
+     * Replays the statement and its rewritten steps to the formatter. The parsed steps are left untouched,
+     * so the same container can be formatted and run by several threads at once.
+     *
+     * @param formatter formatter to report the steps to
+     * @return steps to be executed for this run
+     */
+    List<Step> format(Formatter formatter) {
         statement.replay(formatter);
 
-        helper = manager.getNewCucumberHelper();
+        CucumberHelperPrototype helper = manager.getNewCucumberHelper();
 
         List<Step> formattedSteps = new ArrayList<>();
         List<String> exAttr = null;
@@ -70,10 +77,10 @@ public class StepContainer {
             }
 
             //Replace scenario keywords
-            String updatedStep = updateStep(step);
+            String updatedStep = updateStep(helper, step);
 
             //Replace associated scenario table
-            List<DataTableRow> updatedRows = updateTableRow(rows);
+            List<DataTableRow> updatedRows = updateTableRow(helper, rows);
 
             Step newStep = new Step(step.getComments(), step.getKeyword(),
                     updatedStep, step.getLine(), updatedRows, step.getDocString());
@@ -83,10 +90,10 @@ public class StepContainer {
             //Format the step
             formatter.step(newStep);
         }
-        steps = formattedSteps;
+        return formattedSteps;
     }
 
-    private String updateStep(Step step) {
+    private String updateStep(CucumberHelperPrototype helper, Step step) {
         if (helper != null) {
             return helper.replaceCucumberStepValue(step.getName());
         } else {
@@ -94,7 +101,7 @@ public class StepContainer {
         }
     }
 
-    private List<DataTableRow> updateTableRow(List<DataTableRow> rows) {
+    private List<DataTableRow> updateTableRow(CucumberHelperPrototype helper, List<DataTableRow> rows) {
         if (helper != null) {
             return helper.replaceCucumberTableValues(rows);
         } else {
@@ -133,8 +140,8 @@ public class StepContainer {
         return false;
     }
 
-    void runSteps(Reporter reporter, Runtime runtime) {
-        for (Step step : getSteps()) {
+    void runSteps(List<Step> steps, Reporter reporter, Runtime runtime) {
+        for (Step step : steps) {
             runStep(step, reporter, runtime);
         }
     }
@@ -0,0 +1,167 @@
+package test.java.framework.manager.cucumber.runtime.table;
+
+import cucumber.deps.com.thoughtworks.xstream.converters.ConversionException;
+import cucumber.deps.com.thoughtworks.xstream.converters.Converter;
+import cucumber.deps.com.thoughtworks.xstream.converters.SingleValueConverter;
+import cucumber.deps.com.thoughtworks.xstream.converters.reflection.ObjectAccessException;
+import cucumber.deps.com.thoughtworks.xstream.converters.reflection.ReflectionConverter;
+import cucumber.deps.com.thoughtworks.xstream.converters.reflection.ReflectionProvider;
+import test.java.framework.manager.cucumber.runtime.CucumberException;
+import test.java.framework.manager.cucumber.runtime.xstream.LocalizedXStreams;
+
+import java.lang.annotation.Annotation;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.*;
+
+/**
+ * Turns table rows into objects of a class by setting the fields named by the header, like the XStream
+ * unmarshalling it replaces, with the field setters and converters resolved once per class and header.
+ * <p>
+ * Only plain classes are mapped: converted by the reflection converter of XStream, no {@code readResolve} method, no
+ * XStream annotations, every header naming exactly one field of the class hierarchy and every field type having a
+ * single value converter. Objects are created by the reflection provider of XStream like XStream does, so without
+ * running a constructor, and fields missing from the table keep their default values. For anything else
+ * {@link #create} returns null and the table is unmarshalled by XStream, which also reports unknown and duplicate
+ * fields.
+ */
+class ComplexTypeMapper {
+    private static final String XSTREAM_ANNOTATIONS = "cucumber.deps.com.thoughtworks.xstream.annotations.";
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    private final Class<?> type;
+    private final ReflectionProvider reflectionProvider;
+    private final MethodHandle[] setters;
+    private final SingleValueConverter[] converters;
+    private final boolean[] primitive;
+
+    private ComplexTypeMapper(Class<?> type, ReflectionProvider reflectionProvider, MethodHandle[] setters, SingleValueConverter[] converters, boolean[] primitive) {
+        this.type = type;
+        this.reflectionProvider = reflectionProvider;
+        this.setters = setters;
+        this.converters = converters;
+        this.primitive = primitive;
+    }
+
+    /**
+     * @param type       class of the list items
+     * @param fieldNames field names from the header of the table
+     * @param xStream    xStream with the converters for the field types
+     * @return mapper for the class and header, or null if the table has to be unmarshalled by XStream
+     */
+    static ComplexTypeMapper create(Class<?> type, List<String> fieldNames, LocalizedXStreams.LocalizedXStream xStream) {
+        if (type.isInterface() || type.isArray() || type.isEnum() || Modifier.isAbstract(type.getModifiers())
+                || hasXStreamAnnotation(type.getAnnotations()) || new HashSet<>(fieldNames).size() != fieldNames.size()) {
+            return null;
+        }
+        try {
+            // Serializable and custom converters, and the readResolve call of the reflection converter are left to XStream
+            Converter converter = xStream.getConverterLookup().lookupConverterForType(type);
+            if (converter == null || converter.getClass() != ReflectionConverter.class || hasReadResolve(type)) {
+                return null;
+            }
+
+            int columns = fieldNames.size();
+            MethodHandle[] setters = new MethodHandle[columns];
+            SingleValueConverter[] converters = new SingleValueConverter[columns];
+            boolean[] primitive = new boolean[columns];
+            for (int i = 0; i < columns; i++) {
+                Field field = findField(type, fieldNames.get(i));
+                if (field == null || hasXStreamAnnotation(field.getAnnotations())) {
+                    return null;
+                }
+                converters[i] = xStream.getSingleValueConverter(field.getType());
+                if (converters[i] == null) {
+                    return null;
+                }
+                field.setAccessible(true);
+                setters[i] = LOOKUP.unreflectSetter(field);
+                primitive[i] = field.getType().isPrimitive();
+            }
+            return new ComplexTypeMapper(type, xStream.getReflectionProvider(), setters, converters, primitive);
+        } catch (IllegalAccessException | RuntimeException e) {
+            // Not accessible to us, XStream may still manage
+            return null;
+        }
+    }
+
+    private static boolean hasXStreamAnnotation(Annotation[] annotations) {
+        for (Annotation annotation : annotations) {
+            if (annotation.annotationType().getName().startsWith(XSTREAM_ANNOTATIONS)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean hasReadResolve(Class<?> type) {
+        for (Class<?> current = type; current != null && current != Object.class; current = current.getSuperclass()) {
+            for (Method method : current.getDeclaredMethods()) {
+                if (method.getName().equals("readResolve") && method.getParameterCount() == 0) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return the only instance field with the name in the class hierarchy, null if there is none or more than one
+     */
+    private static Field findField(Class<?> type, String name) {
+        // Names XStream would decode are left to XStream
+        if (name.isEmpty() || name.indexOf('_') >= 0 || name.indexOf('$') >= 0) {
+            return null;
+        }
+        Field found = null;
+        for (Class<?> current = type; current != null && current != Object.class; current = current.getSuperclass()) {
+            for (Field field : current.getDeclaredFields()) {
+                if (field.getName().equals(name)) {
+                    if (found != null || Modifier.isStatic(field.getModifiers()) || Modifier.isTransient(field.getModifiers())
+                            || Modifier.isFinal(field.getModifiers())) {
+                        return null;
+                    }
+                    found = field;
+                }
+            }
+        }
+        return found;
+    }
+
+    /**
+     * @param rows table rows below the header
+     * @return one object per row, or null if the reflection provider can't create objects of the class and the
+     * table has to be unmarshalled by XStream to report it
+     */
+    List<Object> map(List<List<String>> rows) {
+        List<Object> result = new ArrayList<>(rows.size());
+        try {
+            for (List<String> row : rows) {
+                Object item;
+                try {
+                    item = reflectionProvider.newInstance(type);
+                } catch (ObjectAccessException e) {
+                    return null;
+                }
+                for (int i = 0; i < setters.length; i++) {
+                    Object value = converters[i].fromString(row.get(i));
+                    if (value == null && primitive[i]) {
+                        throw new CucumberException(String.format("Can't assign null value to one of the primitive fields in %s. Please use boxed types.", type.getName()));
+                    }
+                    setters[i].invoke(item, value);
+                }
+                result.add(item);
+            }
+        } catch (CucumberException e) {
+            throw e;
+        } catch (ConversionException e) {
+            throw new CucumberException(e);
+        } catch (Throwable t) {
+            throw new CucumberException("Failed to create " + type.getName() + " from table row", t);
+        }
+        return Collections.unmodifiableList(result);
+    }
+}
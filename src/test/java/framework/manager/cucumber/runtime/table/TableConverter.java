@@ -14,6 +14,7 @@ import test.java.framework.manager.cucumber.runtime.xstream.*;
 
 import java.lang.reflect.Type;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static gherkin.util.FixJava.map;
 import static java.util.Arrays.asList;
@@ -26,6 +27,7 @@ public class TableConverter {
     private static final List<Comment> NO_COMMENTS = Collections.emptyList();
     private final LocalizedXStreams.LocalizedXStream xStream;
     private final ParameterInfo parameterInfo;
+    private final Map<Class<?>, Map<List<String>, Optional<ComplexTypeMapper>>> complexTypeMappers = new ConcurrentHashMap<>();
 
     public TableConverter(LocalizedXStreams.LocalizedXStream xStream, ParameterInfo parameterInfo) {
         this.xStream = xStream;
@@ -46,42 +48,66 @@ public class TableConverter {
      */
     @SuppressWarnings("unchecked")
     public <T> T convert(DataTable dataTable, Type type, boolean transposed) {
-        if (transposed) {
-            dataTable = dataTable.transpose();
-        }
+        return (T) compile(type, transposed).convert(dataTable);
+    }
+
+    /**
+     * Works out how tables are converted to {@code type} once, for converting many tables to the type
+     * of the same step definition parameter.
+     *
+     * @param type       the type to convert to
+     * @param transposed whether the table should be transposed first.
+     * @return conversion giving the same result as {@link #convert(DataTable, Type, boolean)}
+     */
+    public Conversion compile(Type type, boolean transposed) {
+        Conversion conversion = compile(type);
+        return transposed ? dataTable -> conversion.convert(dataTable.transpose()) : conversion;
+    }
 
+    @SuppressWarnings("unchecked")
+    private Conversion compile(Type type) {
         if (type == null || (type instanceof Class && ((Class) type).isAssignableFrom(DataTable.class))) {
-            return (T) dataTable;
+            return dataTable -> dataTable;
         }
 
         Type mapKeyType = mapKeyType(type);
         if (mapKeyType != null) {
             Type mapValueType = mapValueType(type);
-            return (T) toMap(dataTable, mapKeyType, mapValueType);
+            SingleValueConverter keyConverter = xStream.getSingleValueConverter(mapKeyType);
+            SingleValueConverter valueConverter = xStream.getSingleValueConverter(mapValueType);
+            return dataTable -> toMap(dataTable, mapKeyType, mapValueType, keyConverter, valueConverter);
         }
 
         Type itemType = listItemType(type);
         if (itemType == null) {
-            throw new CucumberException("Not a Map or List type: " + type);
+            return dataTable -> {
+                throw new CucumberException("Not a Map or List type: " + type);
+            };
         }
 
         Type listItemType = listItemType(itemType);
         if (listItemType != null) {
-            return (T) toLists(dataTable, listItemType);
+            SingleValueConverter itemConverter = xStream.getSingleValueConverter(listItemType);
+            return dataTable -> toLists(dataTable, listItemType, itemConverter);
         } else {
             SingleValueConverter singleValueConverter = xStream.getSingleValueConverter(itemType);
             if (singleValueConverter != null) {
-                return (T) toList(dataTable, singleValueConverter);
+                return dataTable -> toList(dataTable, singleValueConverter);
             } else {
                 if (itemType instanceof Class) {
                     if (Map.class.equals(itemType)) {
                         // Non-generic map
-                        return (T) toMaps(dataTable, String.class, String.class);
+                        SingleValueConverter stringConverter = xStream.getSingleValueConverter(String.class);
+                        return dataTable -> toMaps(dataTable, String.class, String.class, stringConverter, stringConverter);
                     } else {
-                        return (T) toListOfComplexType(dataTable, (Class) itemType);
+                        return dataTable -> toListOfComplexType(dataTable, (Class) itemType);
                     }
                 } else {
-                    return (T) toMaps(dataTable, mapKeyType(itemType), mapValueType(itemType));
+                    Type keyType = mapKeyType(itemType);
+                    Type valueType = mapValueType(itemType);
+                    SingleValueConverter keyConverter = xStream.getSingleValueConverter(keyType);
+                    SingleValueConverter valueConverter = xStream.getSingleValueConverter(valueType);
+                    return dataTable -> toMaps(dataTable, keyType, valueType, keyConverter, valueConverter);
                 }
             }
         }
@@ -89,9 +115,14 @@ public class TableConverter {
 
     @SuppressWarnings("unchecked")
     private <T> List<T> toListOfComplexType(DataTable dataTable, Class<T> itemType) {
-        HierarchicalStreamReader reader = new ListOfComplexTypeReader(itemType, convertTopCellsToFieldNames(dataTable), dataTable.cells(1));
+        Optional<ComplexTypeMapper> mapper = complexTypeMapper(itemType, dataTable.topCells());
         try {
             xStream.setParameterInfo(parameterInfo);
+            List<Object> mapped = mapper.isPresent() ? mapper.get().map(dataTable.cells(1)) : null;
+            if (mapped != null) {
+                return (List<T>) mapped;
+            }
+            HierarchicalStreamReader reader = new ListOfComplexTypeReader(itemType, convertTopCellsToFieldNames(dataTable), dataTable.cells(1));
             return Collections.unmodifiableList((List<T>) xStream.unmarshal(reader));
         } catch (AbstractReflectionConverter.UnknownFieldException |
                 AbstractReflectionConverter.DuplicateFieldException e) {
@@ -107,6 +138,16 @@ public class TableConverter {
         }
     }
 
+    /**
+     * @return mapper for the item type and header, resolved on the first table with them
+     */
+    private Optional<ComplexTypeMapper> complexTypeMapper(Class<?> itemType, List<String> header) {
+        Map<List<String>, Optional<ComplexTypeMapper>> mappersByHeader =
+                complexTypeMappers.computeIfAbsent(itemType, type -> new ConcurrentHashMap<>());
+        return mappersByHeader.computeIfAbsent(new ArrayList<>(header),
+                key -> Optional.ofNullable(ComplexTypeMapper.create(itemType, convertToFieldNames(key), xStream)));
+    }
+
     @SuppressWarnings("unchecked")
     public <T> List<T> toList(DataTable dataTable, Type itemType) {
         SingleValueConverter itemConverter = xStream.getSingleValueConverter(itemType);
@@ -123,34 +164,29 @@ public class TableConverter {
 
     @SuppressWarnings("unchecked")
     private <T> List<T> toList(DataTable dataTable, SingleValueConverter itemConverter) {
-        List<T> result = new ArrayList<T>();
-
-        for (List<String> row : dataTable.raw()) {
-            for (String cell : row) {
-                result.add((T) itemConverter.fromString(cell));
-            }
-        }
-        return Collections.unmodifiableList(result);
+        return (List<T>) Collections.unmodifiableList(asList(convertCells(dataTable.raw(), itemConverter)));
     }
 
     @SuppressWarnings("unchecked")
     public <T> List<List<T>> toLists(DataTable dataTable, Type itemType) {
+        return toLists(dataTable, itemType, xStream.getSingleValueConverter(itemType));
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> List<List<T>> toLists(DataTable dataTable, Type itemType, SingleValueConverter itemConverter) {
+        if (xStream.isStringConverter(itemConverter)) {
+            // Converting gives the cells back, the unmodifiable rows of the table are the result
+            return (List) dataTable.raw();
+        }
         try {
             xStream.setParameterInfo(parameterInfo);
-            SingleValueConverter itemConverter = xStream.getSingleValueConverter(itemType);
             if (itemConverter == null) {
                 throw new CucumberException(String.format("Can't convert DataTable to List<List<%s>>", itemType));
             }
 
-            List<List<T>> result = new ArrayList<List<T>>();
-            for (List<String> row : dataTable.raw()) {
-                List<T> convertedRow = new ArrayList<T>();
-                for (String cell : row) {
-                    convertedRow.add((T) itemConverter.fromString(cell));
-                }
-                result.add(Collections.unmodifiableList(convertedRow));
-            }
-            return Collections.unmodifiableList(result);
+            List<List<String>> rows = dataTable.raw();
+            int columns = rows.isEmpty() ? 0 : rows.get(0).size();
+            return new ConvertedRows<T>(convertCells(rows, itemConverter), columns);
         } finally {
             xStream.unsetParameterInfo();
         }
@@ -158,11 +194,14 @@ public class TableConverter {
 
     @SuppressWarnings("unchecked")
     public <K, V> Map<K, V> toMap(DataTable dataTable, Type keyType, Type valueType) {
+        return toMap(dataTable, keyType, valueType, xStream.getSingleValueConverter(keyType), xStream.getSingleValueConverter(valueType));
+    }
+
+    @SuppressWarnings("unchecked")
+    private <K, V> Map<K, V> toMap(DataTable dataTable, Type keyType, Type valueType,
+                                   SingleValueConverter keyConverter, SingleValueConverter valueConverter) {
         try {
             xStream.setParameterInfo(parameterInfo);
-            SingleValueConverter keyConverter = xStream.getSingleValueConverter(keyType);
-            SingleValueConverter valueConverter = xStream.getSingleValueConverter(valueType);
-
             if (keyConverter == null || valueConverter == null) {
                 throw new CucumberException(String.format("Can't convert DataTable to Map<%s,%s>", keyType, valueType));
             }
@@ -184,37 +223,155 @@ public class TableConverter {
 
     @SuppressWarnings("unchecked")
     public <K, V> List<Map<K, V>> toMaps(DataTable dataTable, Type keyType, Type valueType) {
+        return toMaps(dataTable, keyType, valueType, xStream.getSingleValueConverter(keyType), xStream.getSingleValueConverter(valueType));
+    }
+
+    @SuppressWarnings("unchecked")
+    private <K, V> List<Map<K, V>> toMaps(DataTable dataTable, Type keyType, Type valueType,
+                                          SingleValueConverter keyConverter, SingleValueConverter valueConverter) {
         try {
             xStream.setParameterInfo(parameterInfo);
-            SingleValueConverter keyConverter = xStream.getSingleValueConverter(keyType);
-            SingleValueConverter valueConverter = xStream.getSingleValueConverter(valueType);
-
             if (keyConverter == null || valueConverter == null) {
                 throw new CucumberException(String.format("Can't convert DataTable to List<Map<%s,%s>>", keyType, valueType));
             }
 
-            List<Map<K, V>> result = new ArrayList<Map<K, V>>();
             List<String> keyStrings = dataTable.topCells();
-            List<K> keys = new ArrayList<K>();
-            for (String keyString : keyStrings) {
-                keys.add((K) keyConverter.fromString(keyString));
+            // With duplicate keys the last column is used, like putting the cells of a row in a map one by one
+            Map<K, Integer> columnsByKey = new HashMap<K, Integer>();
+            for (int column = 0; column < keyStrings.size(); column++) {
+                columnsByKey.put((K) keyConverter.fromString(keyStrings.get(column)), column);
             }
-            List<List<String>> valueRows = dataTable.cells(1);
-            for (List<String> valueRow : valueRows) {
-                Map<K, V> map = new HashMap<K, V>();
-                int i = 0;
-                for (String cell : valueRow) {
-                    map.put(keys.get(i), (V) valueConverter.fromString(cell));
-                    i++;
-                }
-                result.add(Collections.unmodifiableMap(map));
-            }
-            return Collections.unmodifiableList(result);
+            Object[] values = convertCells(dataTable.cells(1), valueConverter);
+            return new RowMaps<K, V>(columnsByKey, values, keyStrings.size());
         } finally {
             xStream.unsetParameterInfo();
         }
     }
 
+    /**
+     * @return the converted cells of the rows, row by row
+     */
+    private static Object[] convertCells(List<List<String>> rows, SingleValueConverter converter) {
+        int columns = rows.isEmpty() ? 0 : rows.get(0).size();
+        Object[] values = new Object[rows.size() * columns];
+        int i = 0;
+        for (List<String> row : rows) {
+            for (String cell : row) {
+                values[i++] = converter.fromString(cell);
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Unmodifiable rows of converted cells, the rows are views on the cells.
+     */
+    private static class ConvertedRows<T> extends AbstractList<List<T>> implements RandomAccess {
+        private final Object[] values;
+        private final int columns;
+
+        private ConvertedRows(Object[] values, int columns) {
+            this.values = values;
+            this.columns = columns;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public List<T> get(int row) {
+            if (row < 0 || row >= size()) {
+                throw new IndexOutOfBoundsException("Row: " + row + ", Size: " + size());
+            }
+            int from = row * columns;
+            return (List<T>) Collections.unmodifiableList(asList(values).subList(from, from + columns));
+        }
+
+        @Override
+        public int size() {
+            return columns == 0 ? 0 : values.length / columns;
+        }
+    }
+
+    /**
+     * Unmodifiable rows of converted cells as maps from the converted header, the maps are views on the cells.
+     */
+    private static class RowMaps<K, V> extends AbstractList<Map<K, V>> implements RandomAccess {
+        private final Map<K, Integer> columnsByKey;
+        private final Object[] values;
+        private final int columns;
+
+        private RowMaps(Map<K, Integer> columnsByKey, Object[] values, int columns) {
+            this.columnsByKey = columnsByKey;
+            this.values = values;
+            this.columns = columns;
+        }
+
+        @Override
+        public Map<K, V> get(int row) {
+            if (row < 0 || row >= size()) {
+                throw new IndexOutOfBoundsException("Row: " + row + ", Size: " + size());
+            }
+            return new RowMap(row * columns);
+        }
+
+        @Override
+        public int size() {
+            return columns == 0 ? 0 : values.length / columns;
+        }
+
+        private class RowMap extends AbstractMap<K, V> {
+            private final int offset;
+
+            private RowMap(int offset) {
+                this.offset = offset;
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public V get(Object key) {
+                Integer column = columnsByKey.get(key);
+                return column == null ? null : (V) values[offset + column];
+            }
+
+            @Override
+            public boolean containsKey(Object key) {
+                return columnsByKey.containsKey(key);
+            }
+
+            @Override
+            public int size() {
+                return columnsByKey.size();
+            }
+
+            @Override
+            public Set<Entry<K, V>> entrySet() {
+                return new AbstractSet<Entry<K, V>>() {
+                    @Override
+                    public Iterator<Entry<K, V>> iterator() {
+                        final Iterator<Entry<K, Integer>> columns = columnsByKey.entrySet().iterator();
+                        return new Iterator<Entry<K, V>>() {
+                            @Override
+                            public boolean hasNext() {
+                                return columns.hasNext();
+                            }
+
+                            @Override
+                            @SuppressWarnings("unchecked")
+                            public Entry<K, V> next() {
+                                Entry<K, Integer> column = columns.next();
+                                return new SimpleImmutableEntry<K, V>(column.getKey(), (V) values[offset + column.getValue()]);
+                            }
+                        };
+                    }
+
+                    @Override
+                    public int size() {
+                        return columnsByKey.size();
+                    }
+                };
+            }
+        }
+    }
+
     /**
      * Converts a List of objects to a DataTable.
      *
@@ -273,8 +430,12 @@ public class TableConverter {
     }
 
     private List<String> convertTopCellsToFieldNames(DataTable dataTable) {
+        return convertToFieldNames(dataTable.topCells());
+    }
+
+    private List<String> convertToFieldNames(List<String> header) {
         final StringConverter mapper = new CamelCaseStringConverter();
-        return map(dataTable.topCells(), new Mapper<String, String>() {
+        return map(header, new Mapper<String, String>() {
             @Override
             public String map(String attributeName) {
                 return mapper.map(attributeName);
@@ -297,4 +458,11 @@ public class TableConverter {
         }
         return false;
     }
+
+    /**
+     * Conversion of tables to one type, see {@link #compile(Type, boolean)}
+     */
+    public interface Conversion {
+        Object convert(DataTable dataTable);
+    }
 }
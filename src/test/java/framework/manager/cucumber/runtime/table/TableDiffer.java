@@ -3,12 +3,13 @@ package test.java.framework.manager.cucumber.runtime.table;
 import cucumber.deps.difflib.Delta;
 import cucumber.deps.difflib.DiffUtils;
 import cucumber.deps.difflib.Patch;
+import gherkin.formatter.model.Comment;
 import gherkin.formatter.model.DataTableRow;
 import gherkin.formatter.model.Row;
 import test.java.framework.manager.cucumber.api.DataTable;
+import test.java.framework.manager.cucumber.runtime.CucumberException;
 
 import java.util.*;
-import java.util.stream.Collectors;
 
 public class TableDiffer {
 
@@ -27,32 +28,128 @@ public class TableDiffer {
         }
     }
 
+    /**
+     * Diffs the tables keeping the order of the rows. Rows are compared by a 64-bit fingerprint of their cells and
+     * numbered, equal rows getting the same number, so the diff itself only compares ints. The rows both tables
+     * start with, and the unique rows both end with, are left out of the diff, and when the rows in between have
+     * nothing in common they are all changed without running the diff. The diff table is the same as diffing all rows.
+     * <p>
+     * The diff table reports at most {@code -DtableDiffMaxRows} deleted and inserted rows, followed by a row
+     * telling how many more were left out. By default all of them are reported.
+     */
     public void calculateDiffs() throws TableDiffException {
-        Patch patch = DiffUtils.diff(from.diffableRows(), to.diffableRows());
-        List<Delta> deltas = patch.getDeltas();
-        if (!deltas.isEmpty()) {
-            Map<Integer, Delta> deltasByLine = createDeltasByLine(deltas);
-            throw new TableDiffException(from, to, createTableDiff(deltasByLine));
+        Map<RowKey, Integer> rowIds = new HashMap<RowKey, Integer>();
+        int[] fromIds = rowIds(from.raw(), rowIds);
+        int[] toIds = rowIds(to.raw(), rowIds);
+
+        int commonLength = Math.min(fromIds.length, toIds.length);
+        int prefix = 0;
+        while (prefix < commonLength && fromIds[prefix] == toIds[prefix]) {
+            prefix++;
+        }
+        // A common last row is only left out when it occurs nowhere else, otherwise the diff may align it differently
+        int[] occurrences = new int[rowIds.size()];
+        for (int i = prefix; i < fromIds.length; i++) {
+            occurrences[fromIds[i]]++;
+        }
+        for (int i = prefix; i < toIds.length; i++) {
+            occurrences[toIds[i]]++;
+        }
+        int suffix = 0;
+        while (suffix < commonLength - prefix && fromIds[fromIds.length - 1 - suffix] == toIds[toIds.length - 1 - suffix]
+                && occurrences[fromIds[fromIds.length - 1 - suffix]] == 2) {
+            suffix++;
+        }
+
+        List<Hunk> hunks = createHunks(fromIds, toIds, prefix, fromIds.length - suffix, toIds.length - suffix, rowIds.size());
+        if (!hunks.isEmpty()) {
+            throw new TableDiffException(from, to, createTableDiff(hunks, maxDiffRows()));
+        }
+    }
+
+    private static int maxDiffRows() {
+        int maxDiffRows = Integer.parseInt(System.getProperty("tableDiffMaxRows", String.valueOf(Integer.MAX_VALUE)));
+        if (maxDiffRows < 1) {
+            throw new CucumberException("Invalid tableDiffMaxRows " + maxDiffRows + ", expected at least 1");
+        }
+        return maxDiffRows;
+    }
+
+    private static int[] rowIds(List<List<String>> rows, Map<RowKey, Integer> rowIds) {
+        int[] ids = new int[rows.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = rowIds.computeIfAbsent(new RowKey(rows.get(i)), key -> rowIds.size());
+        }
+        return ids;
+    }
+
+    /**
+     * @return the changed parts of the rows from fromStart until fromEnd and toEnd, ordered by position
+     */
+    private static List<Hunk> createHunks(int[] fromIds, int[] toIds, int start, int fromEnd, int toEnd, int distinctRows) {
+        if (start == fromEnd && start == toEnd) {
+            return Collections.emptyList();
+        }
+        if (start == fromEnd || start == toEnd || !haveCommonRow(fromIds, toIds, start, fromEnd, toEnd, distinctRows)) {
+            return Collections.singletonList(new Hunk(start, fromEnd - start, start, toEnd - start));
+        }
+        Patch patch = DiffUtils.diff(boxed(fromIds, start, fromEnd), boxed(toIds, start, toEnd));
+        List<Hunk> hunks = new ArrayList<Hunk>();
+        for (Delta delta : patch.getDeltas()) {
+            hunks.add(new Hunk(start + delta.getOriginal().getPosition(), delta.getOriginal().size(),
+                    start + delta.getRevised().getPosition(), delta.getRevised().size()));
+        }
+        hunks.sort(Comparator.comparingInt(hunk -> hunk.fromStart));
+        return hunks;
+    }
+
+    private static boolean haveCommonRow(int[] fromIds, int[] toIds, int start, int fromEnd, int toEnd, int distinctRows) {
+        BitSet fromRows = new BitSet(distinctRows);
+        for (int i = start; i < fromEnd; i++) {
+            fromRows.set(fromIds[i]);
+        }
+        for (int i = start; i < toEnd; i++) {
+            if (fromRows.get(toIds[i])) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static List<Integer> boxed(int[] ids, int start, int end) {
+        List<Integer> result = new ArrayList<Integer>(end - start);
+        for (int i = start; i < end; i++) {
+            result.add(ids[i]);
         }
+        return result;
     }
 
-    @SuppressWarnings({"MismatchedQueryAndUpdateOfCollection", "unchecked"})
+    /**
+     * Diffs the tables ignoring the order of the rows. Rows of "from" that aren't in "to" are marked as deleted,
+     * rows of "to" left over once every row of "from" took one equal row are added as inserted, in the order of "to".
+     * <p>
+     * The rows of "to" are counted in a hash map once, so each row is only hashed and compared a constant number
+     * of times instead of searching the whole table for every row.
+     */
+    @SuppressWarnings("unchecked")
     public void calculateUnorderedDiffs() throws TableDiffException {
         boolean isDifferent = false;
         List<DataTableRow> diffTableRows = new ArrayList<DataTableRow>();
-        List<List<String>> missingRow = new ArrayList<List<String>>();
-
-        ArrayList<List<String>> extraRows = new ArrayList<List<String>>();
 
-        // 1. add all "to" row in extra table
-        // 2. iterate over "from", when a common row occurs, remove it from extraRows
-        // finally, only extra rows are kept and in same order that in "to".
-        extraRows.addAll(to.raw());
+        // For every distinct row of "to": [0] occurrences not taken by a row of "from" yet, [1] occurrences taken
+        List<List<String>> toRows = to.raw();
+        Map<List<String>, int[]> countsByRow = new HashMap<List<String>, int[]>(toRows.size() * 4 / 3 + 1);
+        int[][] toRowCounts = new int[toRows.size()][];
+        for (int n = 0; n < toRows.size(); n++) {
+            int[] counts = countsByRow.computeIfAbsent(toRows.get(n), row -> new int[2]);
+            counts[0]++;
+            toRowCounts[n] = counts;
+        }
 
         int i = 1;
         for (DataTableRow r : from.getGherkinRows()) {
-            if (!to.raw().contains(r.getCells())) {
-                missingRow.add(r.getCells());
+            int[] counts = countsByRow.get(r.getCells());
+            if (counts == null) {
                 diffTableRows.add(
                         new DataTableRow(r.getComments(),
                                 r.getCells(),
@@ -64,13 +161,23 @@ public class TableDiffer {
                         new DataTableRow(r.getComments(),
                                 r.getCells(),
                                 i++));
-                extraRows.remove(r.getCells());
+                // A row of "from" is kept even when its equal rows in "to" were all taken
+                if (counts[0] > 0) {
+                    counts[0]--;
+                    counts[1]++;
+                }
             }
         }
 
-        for (List<String> e : extraRows) {
+        // The taken occurrences are the first ones in "to", the others are extra rows
+        for (int n = 0; n < toRows.size(); n++) {
+            int[] counts = toRowCounts[n];
+            if (counts[1] > 0) {
+                counts[1]--;
+                continue;
+            }
             diffTableRows.add(new DataTableRow(Collections.EMPTY_LIST,
-                    e,
+                    toRows.get(n),
                     i++,
                     Row.DiffType.INSERT));
             isDifferent = true;
@@ -81,63 +188,101 @@ public class TableDiffer {
         }
     }
 
-    private Map<Integer, Delta> createDeltasByLine(List<Delta> deltas) {
-        Map<Integer, Delta> deltasByLine = new HashMap<Integer, Delta>();
-        for (Delta delta : deltas) {
-            deltasByLine.put(delta.getOriginal().getPosition(), delta);
+    private DataTable createTableDiff(List<Hunk> hunks, int maxDiffRows) {
+        List<DataTableRow> fromRows = from.getGherkinRows();
+        List<DataTableRow> toRows = to.getGherkinRows();
+        int changedRows = 0;
+        for (Hunk hunk : hunks) {
+            changedRows += hunk.fromCount + hunk.toCount;
         }
-        return deltasByLine;
-    }
 
-    private DataTable createTableDiff(Map<Integer, Delta> deltasByLine) {
         List<DataTableRow> diffTableRows = new ArrayList<DataTableRow>();
-        List<List<String>> rows = from.raw();
-        for (int i = 0; i < rows.size(); i++) {
-            Delta delta = deltasByLine.get(i);
-            if (delta == null) {
-                diffTableRows.add(from.getGherkinRows().get(i));
-            } else {
-                addRowsToTableDiff(diffTableRows, delta);
-                // skipping lines involved in a delta
-                if (delta.getType() == Delta.TYPE.CHANGE || delta.getType() == Delta.TYPE.DELETE) {
-                    i += delta.getOriginal().getLines().size() - 1;
-                } else {
-                    diffTableRows.add(from.getGherkinRows().get(i));
+        int reported = 0;
+        int i = 0;
+        for (Hunk hunk : hunks) {
+            for (; i < hunk.fromStart; i++) {
+                diffTableRows.add(fromRows.get(i));
+            }
+            // Changed rows in the original are missing, changed rows in the revised are new
+            for (int n = 0; n < hunk.fromCount + hunk.toCount; n++) {
+                DataTableRow row = n < hunk.fromCount ? fromRows.get(hunk.fromStart + n) : toRows.get(hunk.toStart + n - hunk.fromCount);
+                if (reported == maxDiffRows) {
+                    diffTableRows.add(omittedRowsNote(changedRows - reported, row.getLine()));
+                    return new DataTable(diffTableRows, from.getTableConverter());
                 }
+                diffTableRows.add(new DataTableRow(row.getComments(), row.getCells(), row.getLine(),
+                        n < hunk.fromCount ? Row.DiffType.DELETE : Row.DiffType.INSERT));
+                reported++;
             }
+            i = hunk.fromStart + hunk.fromCount;
         }
-        // Can have new lines at end
-        Delta remainingDelta = deltasByLine.get(rows.size());
-        if (remainingDelta != null) {
-            addRowsToTableDiff(diffTableRows, remainingDelta);
+        for (; i < fromRows.size(); i++) {
+            diffTableRows.add(fromRows.get(i));
         }
         return new DataTable(diffTableRows, from.getTableConverter());
     }
 
-    private void addRowsToTableDiff(List<DataTableRow> diffTableRows, Delta delta) {
-        markChangedAndDeletedRowsInOriginalAsMissing(diffTableRows, delta);
-        markChangedAndInsertedRowsInRevisedAsNew(diffTableRows, delta);
+    private DataTableRow omittedRowsNote(int omittedRows, Integer line) {
+        List<String> cells = Collections.nCopies(from.topCells().size(), "...");
+        Comment comment = new Comment("# " + omittedRows + " more changed rows not shown, see -DtableDiffMaxRows", line);
+        return new DataTableRow(Collections.singletonList(comment), cells, line);
     }
 
-    @SuppressWarnings("unchecked")
-    private void markChangedAndDeletedRowsInOriginalAsMissing(List<DataTableRow> diffTableRows, Delta delta) {
-        List<DiffableRow> deletedLines = (List<DiffableRow>) delta.getOriginal().getLines();
-        diffTableRows.addAll(
-                deletedLines.stream()
-                        .map(row -> new DataTableRow(
-                                row.row.getComments(), row.row.getCells(), row.row.getLine(), Row.DiffType.DELETE)
-                        ).collect(Collectors.toList())
-        );
+    /**
+     * Rows from fromStart in the original replaced by the rows from toStart in the revised table
+     */
+    private static final class Hunk {
+        private final int fromStart;
+        private final int fromCount;
+        private final int toStart;
+        private final int toCount;
+
+        private Hunk(int fromStart, int fromCount, int toStart, int toCount) {
+            this.fromStart = fromStart;
+            this.fromCount = fromCount;
+            this.toStart = toStart;
+            this.toCount = toCount;
+        }
     }
 
-    @SuppressWarnings("unchecked")
-    private void markChangedAndInsertedRowsInRevisedAsNew(List<DataTableRow> diffTableRows, Delta delta) {
-        List<DiffableRow> insertedLines = (List<DiffableRow>) delta.getRevised().getLines();
-        diffTableRows.addAll(
-                insertedLines.stream()
-                        .map(row -> new DataTableRow(
-                                row.row.getComments(), row.row.getCells(), row.row.getLine(), Row.DiffType.INSERT)
-                        ).collect(Collectors.toList())
-        );
+    /**
+     * The cells of a row with their 64-bit fingerprint, rows with different fingerprints are never compared cell by cell
+     */
+    private static final class RowKey {
+        private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+        private static final long FNV_PRIME = 0x100000001b3L;
+
+        private final List<String> cells;
+        private final long fingerprint;
+
+        private RowKey(List<String> cells) {
+            this.cells = cells;
+            long hash = FNV_OFFSET_BASIS;
+            for (String cell : cells) {
+                if (cell == null) {
+                    hash = (hash ^ 0xffff) * FNV_PRIME;
+                } else {
+                    for (int i = 0; i < cell.length(); i++) {
+                        hash = (hash ^ cell.charAt(i)) * FNV_PRIME;
+                    }
+                }
+                // Separates the cells, so ["ab", ""] and ["a", "b"] differ
+                hash = (hash ^ 0x10000) * FNV_PRIME;
+            }
+            this.fingerprint = hash;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof RowKey)) return false;
+            RowKey that = (RowKey) o;
+            return fingerprint == that.fingerprint && cells.equals(that.cells);
+        }
+
+        @Override
+        public int hashCode() {
+            return (int) (fingerprint ^ (fingerprint >>> 32));
+        }
     }
 }
@@ -1,16 +1,17 @@
 package test.java.framework.manager.cucumber.runtime.xstream;
 
 import java.text.NumberFormat;
-import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Locale;
 
 abstract class ConverterWithNumberFormat<T extends Number> extends ConverterWithFormat<T> {
-    private final List<NumberFormat> formats = new ArrayList<>();
+    // Number formats aren't thread safe, the converter is shared by all threads using the glue
+    private final ThreadLocal<List<NumberFormat>> formats;
 
     ConverterWithNumberFormat(Locale locale, Class[] convertibleTypes) {
         super(convertibleTypes);
-        formats.add(NumberFormat.getNumberInstance(locale));
+        formats = ThreadLocal.withInitial(() -> Collections.singletonList(NumberFormat.getNumberInstance(locale)));
     }
 
     @Override
@@ -21,7 +22,7 @@ abstract class ConverterWithNumberFormat<T extends Number> extends ConverterWith
 
     @Override
     public List<NumberFormat> getFormats() {
-        return formats;
+        return formats.get();
     }
 
     protected abstract T downcast(Number argument);
@@ -10,9 +10,10 @@ import test.java.framework.manager.cucumber.runtime.ParameterInfo;
 
 import java.lang.reflect.Type;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class LocalizedXStreams {
-    private final Map<Locale, LocalizedXStream> xStreamsByLocale = new HashMap<Locale, LocalizedXStream>();
+    private final Map<Locale, LocalizedXStream> xStreamsByLocale = new ConcurrentHashMap<>();
     private final ClassLoader classLoader;
 
     public LocalizedXStreams(ClassLoader classLoader) {
@@ -20,12 +21,7 @@ public class LocalizedXStreams {
     }
 
     public LocalizedXStream get(Locale locale) {
-        LocalizedXStream xStream = xStreamsByLocale.get(locale);
-        if (xStream == null) {
-            xStream = newXStream(locale);
-            xStreamsByLocale.put(locale, xStream);
-        }
-        return xStream;
+        return xStreamsByLocale.computeIfAbsent(locale, this::newXStream);
     }
 
     private LocalizedXStream newXStream(Locale locale) {
@@ -41,6 +37,10 @@ public class LocalizedXStreams {
                 return new ArrayList<>();
             }
         };
+        // The time converters registered in the constructor, looked up once
+        private volatile List<TimeConverter> registeredTimeConverters;
+        // The converter of XStream for strings, which gives the cells back as they are
+        private final SingleValueConverter stringConverter;
 
         public LocalizedXStream(ClassLoader classLoader, ConverterLookup converterLookup, ConverterRegistry converterRegistry, Locale locale) {
             super(null, null, classLoader, null, converterLookup, converterRegistry);
@@ -62,6 +62,7 @@ public class LocalizedXStreams {
 
             // Must be lower priority than the ones above, but higher than xstream's built-in ReflectionConverter
             converterRegistry.registerConverter(new DynamicClassWithStringAssignableConverter(), XStream.PRIORITY_LOW);
+            stringConverter = getSingleValueConverter(String.class);
         }
 
         private void register(ConverterRegistry lookup, SingleValueConverter converter) {
@@ -70,16 +71,26 @@ public class LocalizedXStreams {
 
         public void setParameterInfo(ParameterInfo parameterInfo) {
             if (parameterInfo != null) {
-                List<Class> timeClasses = TimeConverter.getTimeClasses();
-                for (Class timeClass : timeClasses) {
-                    SingleValueConverterWrapperExt converterWrapper = (SingleValueConverterWrapperExt) getConverterLookup().lookupConverterForType(timeClass);
-                    TimeConverter timeConverter = (TimeConverter) converterWrapper.getConverter();
+                for (TimeConverter timeConverter : getTimeConverters()) {
                     timeConverter.setParameterInfoAndLocale(parameterInfo, locale);
                     timeConverters.get().add(timeConverter);
                 }
             }
         }
 
+        private List<TimeConverter> getTimeConverters() {
+            List<TimeConverter> converters = registeredTimeConverters;
+            if (converters == null) {
+                converters = new ArrayList<>();
+                for (Class timeClass : TimeConverter.getTimeClasses()) {
+                    SingleValueConverterWrapperExt converterWrapper = (SingleValueConverterWrapperExt) getConverterLookup().lookupConverterForType(timeClass);
+                    converters.add((TimeConverter) converterWrapper.getConverter());
+                }
+                registeredTimeConverters = converters;
+            }
+            return converters;
+        }
+
         public void unsetParameterInfo() {
             for (TimeConverter timeConverter : timeConverters.get()) {
                 timeConverter.removeOnlyFormat();
@@ -105,6 +116,13 @@ public class LocalizedXStreams {
             }
         }
 
+        /**
+         * @return whether the converter is the one XStream uses for strings, so converting a cell gives the cell
+         */
+        public boolean isStringConverter(SingleValueConverter converter) {
+            return converter != null && converter == stringConverter;
+        }
+
         public SingleValueConverter createListConverter(String delimiter, SingleValueConverter elementConverter) {
             return new ListConverter(delimiter, elementConverter);
         }
@@ -7,39 +7,51 @@ import java.text.Format;
 import java.text.SimpleDateFormat;
 import java.util.*;
 
+/**
+ * Converters of an xStream are used by all threads sharing the glue. Date formats aren't thread safe and the
+ * format set from {@link test.java.framework.manager.cucumber.api.Format} only applies to the conversion running on the current thread,
+ * so both are kept per thread.
+ */
 abstract class TimeConverter<T> extends ConverterWithFormat<T> {
-    private final List<DateFormat> formats = new ArrayList<>();
-    private String format;
+    private final Locale locale;
+    private final ThreadLocal<List<DateFormat>> formats;
+    private final ThreadLocal<String> format = new ThreadLocal<>();
 
     TimeConverter(Locale locale, Class[] convertibleTypes) {
         super(convertibleTypes);
-
-        addFormat(DateFormat.SHORT, locale);
-        addFormat(DateFormat.MEDIUM, locale);
-        addFormat(DateFormat.LONG, locale);
-        addFormat(DateFormat.FULL, locale);
-    }
-
-    void addFormat(int style, Locale locale) {
-        add(DateFormat.getDateInstance(style, locale));
+        this.locale = locale;
+        this.formats = ThreadLocal.withInitial(() -> {
+            List<DateFormat> dateFormats = new ArrayList<>();
+            dateFormats.add(lenientOff(DateFormat.getDateInstance(DateFormat.SHORT, locale)));
+            dateFormats.add(lenientOff(DateFormat.getDateInstance(DateFormat.MEDIUM, locale)));
+            dateFormats.add(lenientOff(DateFormat.getDateInstance(DateFormat.LONG, locale)));
+            dateFormats.add(lenientOff(DateFormat.getDateInstance(DateFormat.FULL, locale)));
+            return dateFormats;
+        });
     }
 
-    void add(DateFormat dateFormat) {
+    private static DateFormat lenientOff(DateFormat dateFormat) {
         dateFormat.setLenient(false);
-        formats.add(dateFormat);
+        return dateFormat;
     }
 
     public List<? extends Format> getFormats() {
-        return format == null ? formats : Collections.singletonList(getOnlyFormat());
+        String onlyFormat = format.get();
+        return onlyFormat == null ? formats.get() : Collections.singletonList(getOnlyFormat(onlyFormat));
     }
 
-    private Format getOnlyFormat() {
-        DateFormat dateFormat = new SimpleDateFormat(format, getLocale());
+    private Format getOnlyFormat(String onlyFormat) {
+        DateFormat dateFormat = new SimpleDateFormat(onlyFormat, locale);
         dateFormat.setLenient(false);
 
         return dateFormat;
     }
 
+    @Override
+    protected Locale getLocale() {
+        return locale;
+    }
+
     @Override
     public String toString(Object obj) {
         if (obj instanceof Calendar) {
@@ -53,12 +65,12 @@ abstract class TimeConverter<T> extends ConverterWithFormat<T> {
         super.setParameterInfoAndLocale(parameterInfo, locale);
 
         if (parameterInfo.getFormat() != null) {
-            format = parameterInfo.getFormat();
+            format.set(parameterInfo.getFormat());
         }
     }
 
     public void removeOnlyFormat() {
-        format = null;
+        format.remove();
     }
 
     public static List<Class> getTimeClasses() {
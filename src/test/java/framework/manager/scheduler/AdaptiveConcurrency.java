@@ -0,0 +1,199 @@
+package test.java.framework.manager.scheduler;
+
+import test.java.framework.manager.cucumber.runtime.CucumberException;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.OperatingSystemMXBean;
+import java.util.function.DoubleSupplier;
+import java.util.function.LongSupplier;
+
+/**
+ * Number of threads allowed to run scenarios at the same time, adapted to the capacity of the grid and the host.
+ * <p>
+ * TestNG starts {@code -DthreadCount} threads (the ceiling). With {@code -DminThreadCount} set below it, only that
+ * many run scenarios at first, the rest wait in {@link #enter()}. The limit then grows by one while drivers start
+ * quickly and host load stays low, drops by one when driver start gets slow ({@code -DslowDriverStartMs}, default
+ * 60000) or load per CPU exceeds {@code -DmaxLoadPerCpu} (default 2.0), and halves when a driver fails to start.
+ * The limit is changed at most once per {@code -DadaptiveIntervalMs} (default 10000) and never leaves the
+ * floor..ceiling range. Without {@code -DminThreadCount} all threads run all the time.
+ * <p>
+ * A thread over the limit quits its browser before waiting, so lowering the limit frees grid slots. Once allowed to
+ * run again it starts a new driver, whose start time and failures feed back into the limit.
+ */
+public class AdaptiveConcurrency {
+
+    private static volatile AdaptiveConcurrency instance;
+    private static final Object instanceLock = new Object();
+
+    private final int floor;
+    private final int ceiling;
+    private final long slowStartMillis;
+    private final double maxLoadPerCpu;
+    private final long intervalMillis;
+    private final LongSupplier clock;
+    private final DoubleSupplier loadPerCpu;
+
+    private int target;
+    private int active;
+    private int waiting;
+    private int starts;
+    private int failures;
+    private long startMillisSum;
+    private long lastChange;
+
+    /**
+     * The limit is only changed by {@link #enter}, {@link #driverStarted} and {@link #driverFailed} calls, based on
+     * {@code clock} and {@code loadPerCpu}, so fixed values for both give the same decisions on every run.
+     *
+     * @param floor           lowest and initial limit
+     * @param ceiling         highest limit
+     * @param slowStartMillis average driver start time above which the limit drops
+     * @param maxLoadPerCpu   load per CPU above which the limit drops
+     * @param intervalMillis  minimum time between two changes of the limit, also how often waiting threads recheck it
+     * @param clock           current time in milliseconds
+     * @param loadPerCpu      current host load per CPU
+     */
+    AdaptiveConcurrency(int floor, int ceiling, long slowStartMillis, double maxLoadPerCpu, long intervalMillis,
+                        LongSupplier clock, DoubleSupplier loadPerCpu) {
+        if (floor < 1 || floor > ceiling) {
+            throw new CucumberException(String.format("Invalid thread count range %d..%d", floor, ceiling));
+        }
+        this.floor = floor;
+        this.ceiling = ceiling;
+        this.slowStartMillis = slowStartMillis;
+        this.maxLoadPerCpu = maxLoadPerCpu;
+        this.intervalMillis = intervalMillis;
+        this.clock = clock;
+        this.loadPerCpu = loadPerCpu;
+        this.target = floor;
+        this.lastChange = clock.getAsLong();
+    }
+
+    /**
+     * @return limit shared by all threads of the JVM, created on the first call
+     */
+    public static AdaptiveConcurrency getInstance() {
+        AdaptiveConcurrency concurrency = instance;
+        if (concurrency == null) {
+            synchronized (instanceLock) {
+                concurrency = instance;
+                if (concurrency == null) {
+                    int ceiling = Integer.parseInt(System.getProperty("threadCount", "1"));
+                    int floor = Integer.parseInt(System.getProperty("minThreadCount", String.valueOf(ceiling)));
+                    concurrency = new AdaptiveConcurrency(floor, ceiling,
+                            Long.parseLong(System.getProperty("slowDriverStartMs", "60000")),
+                            Double.parseDouble(System.getProperty("maxLoadPerCpu", "2.0")),
+                            Long.parseLong(System.getProperty("adaptiveIntervalMs", "10000")),
+                            System::currentTimeMillis, AdaptiveConcurrency::systemLoadPerCpu);
+                    instance = concurrency;
+                }
+            }
+        }
+        return concurrency;
+    }
+
+    /**
+     * Waits until the current thread is allowed to run a scenario. A thread that has to wait first runs
+     * {@code beforeWaiting}, e.g. to quit its browser so the grid slot is free while it waits.
+     *
+     * @param beforeWaiting called outside the lock before waiting, not called if the thread may run right away
+     */
+    public void enter(Runnable beforeWaiting) {
+        if (!tryEnter()) {
+            beforeWaiting.run();
+            enter();
+        }
+    }
+
+    private synchronized boolean tryEnter() {
+        adjust();
+        if (active < target) {
+            active++;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Waits until the current thread is allowed to run a scenario
+     */
+    public synchronized void enter() {
+        waiting++;
+        try {
+            adjust();
+            while (active >= target) {
+                wait(Math.max(1, intervalMillis));
+                adjust();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CucumberException("Interrupted while waiting for a free thread slot", e);
+        } finally {
+            waiting--;
+        }
+        active++;
+    }
+
+    /**
+     * Called once the scenario allowed by {@link #enter()} is done
+     */
+    public synchronized void exit() {
+        active--;
+        notifyAll();
+    }
+
+    /**
+     * @param millis how long the driver took to start
+     */
+    public synchronized void driverStarted(long millis) {
+        starts++;
+        startMillisSum += millis;
+        adjust();
+    }
+
+    public synchronized void driverFailed() {
+        failures++;
+        adjust();
+    }
+
+    public synchronized int getTarget() {
+        return target;
+    }
+
+    private void adjust() {
+        long now = clock.getAsLong();
+        if (floor == ceiling || now - lastChange < intervalMillis) {
+            return;
+        }
+        double load = loadPerCpu.getAsDouble();
+        long averageStart = starts == 0 ? 0 : startMillisSum / starts;
+
+        int newTarget = target;
+        if (failures > 0) {
+            newTarget = target / 2;
+        } else if (averageStart > slowStartMillis || load > maxLoadPerCpu) {
+            newTarget = target - 1;
+        } else if (waiting > 0 && active >= target) {
+            newTarget = target + 1;
+        }
+        newTarget = Math.max(floor, Math.min(ceiling, newTarget));
+
+        if (newTarget != target) {
+            System.out.println(String.format("Thread count %d -> %d (driver starts: %d, average %d ms, failed: %d, load per CPU: %.2f)",
+                    target, newTarget, starts, averageStart, failures, load));
+            target = newTarget;
+            notifyAll();
+        }
+        starts = 0;
+        failures = 0;
+        startMillisSum = 0;
+        lastChange = now;
+    }
+
+    private static double systemLoadPerCpu() {
+        OperatingSystemMXBean os = ManagementFactory.getOperatingSystemMXBean();
+        double load = os.getSystemLoadAverage();
+        //Not available on some platforms
+        return load < 0 ? 0 : load / os.getAvailableProcessors();
+    }
+}
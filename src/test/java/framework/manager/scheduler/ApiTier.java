@@ -0,0 +1,101 @@
+package test.java.framework.manager.scheduler;
+
+import test.java.framework.manager.cucumber.runtime.CucumberException;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Threads for scenarios tagged {@code @no-driver}, which only use HTTP and don't need a browser.
+ * <p>
+ * Enabled with {@code -DapiThreadCount=n}: n threads are started next to the {@code -DthreadCount} browser threads
+ * and run nothing but @no-driver scenarios, so large API suites don't wait for browser slots. Virtual threads are
+ * used when the JDK has them, platform threads otherwise. Not available for worker JVMs of a {@link ScenarioCoordinator}.
+ */
+public class ApiTier {
+
+    private static final Object lock = new Object();
+    private static final List<Thread> threads = new ArrayList<>();
+    private static final List<Throwable> failures = new ArrayList<>();
+    private static boolean started;
+
+    /**
+     * @return true if @no-driver scenarios get their own threads
+     */
+    public static boolean isEnabled() {
+        return getThreadCount() > 0 && System.getProperty("coordinator") == null;
+    }
+
+    private static int getThreadCount() {
+        return Integer.parseInt(System.getProperty("apiThreadCount", "0"));
+    }
+
+    /**
+     * Start the API threads unless already started by another browser thread
+     *
+     * @param worker runs the @no-driver scenarios on the calling thread
+     * @return true if this call started the threads, the caller should then {@link #awaitCompletion()}
+     */
+    public static boolean startOnce(Runnable worker) {
+        synchronized (lock) {
+            if (started || !isEnabled()) {
+                return false;
+            }
+            started = true;
+            int threadCount = getThreadCount();
+            for (int i = 0; i < threadCount; i++) {
+                threads.add(start(() -> {
+                    try {
+                        worker.run();
+                    } catch (Throwable e) {
+                        synchronized (lock) {
+                            failures.add(e);
+                        }
+                    }
+                }, "api-worker-" + i));
+            }
+            System.out.println("Started " + threadCount + " API thread(s) for @no-driver scenarios");
+            return true;
+        }
+    }
+
+    /**
+     * Waits for all API threads to finish
+     *
+     * @throws CucumberException with the first failure of the API threads
+     */
+    public static void awaitCompletion() {
+        List<Thread> toJoin;
+        synchronized (lock) {
+            toJoin = new ArrayList<>(threads);
+        }
+        for (Thread thread : toJoin) {
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CucumberException("Interrupted while waiting for API threads", e);
+            }
+        }
+        synchronized (lock) {
+            if (!failures.isEmpty()) {
+                throw new CucumberException(failures.get(0));
+            }
+        }
+    }
+
+    private static Thread start(Runnable runnable, String name) {
+        try {
+            //Thread.startVirtualThread is available on JDK 21+, the source level is kept at 1.8
+            Method startVirtualThread = Thread.class.getMethod("startVirtualThread", Runnable.class);
+            Thread thread = (Thread) startVirtualThread.invoke(null, runnable);
+            thread.setName(name);
+            return thread;
+        } catch (ReflectiveOperationException e) {
+            Thread thread = new Thread(runnable, name);
+            thread.start();
+            return thread;
+        }
+    }
+}
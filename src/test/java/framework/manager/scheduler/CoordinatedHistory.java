@@ -0,0 +1,27 @@
+package test.java.framework.manager.scheduler;
+
+import java.io.File;
+
+/**
+ * History of a worker JVM. Durations are sent to the {@link ScenarioCoordinator},
+ * which writes the history file for the whole run.
+ */
+class CoordinatedHistory extends ScenarioHistory {
+
+    private final CoordinatorClient coordinator;
+
+    CoordinatedHistory(File file, CoordinatorClient coordinator) {
+        super(file);
+        this.coordinator = coordinator;
+    }
+
+    @Override
+    public void record(String id, long durationMillis) {
+        coordinator.duration(id, durationMillis);
+    }
+
+    @Override
+    public synchronized void save() {
+        //Written by the coordinator
+    }
+}
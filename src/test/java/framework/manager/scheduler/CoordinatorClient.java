@@ -0,0 +1,123 @@
+package test.java.framework.manager.scheduler;
+
+import test.java.framework.manager.cucumber.runtime.CucumberException;
+
+import java.io.*;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Worker side of the connection to {@link ScenarioCoordinator}. One connection is shared by all threads of the worker JVM.
+ */
+class CoordinatorClient {
+
+    private final int port;
+    private final Socket socket;
+    private final BufferedReader in;
+    private final Writer out;
+    private boolean done;
+
+    /**
+     * @param port        coordinator port on the loopback interface
+     * @param fingerprint {@link ScenarioCoordinator#fingerprint} of the scenarios known to this worker,
+     *                    the coordinator refuses workers that see other features or tags than it does
+     */
+    CoordinatorClient(int port, String fingerprint) {
+        this.port = port;
+        Socket connected = null;
+        BufferedReader reader = null;
+        try {
+            connected = new Socket(InetAddress.getLoopbackAddress(), port);
+            reader = new BufferedReader(new InputStreamReader(connected.getInputStream(), StandardCharsets.UTF_8));
+            out = new BufferedWriter(new OutputStreamWriter(connected.getOutputStream(), StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            closeQuietly(reader, connected);
+            throw new CucumberException("Failed to connect to scenario coordinator on port " + port, e);
+        }
+        socket = connected;
+        in = reader;
+        try {
+            if (!ScenarioCoordinator.OK.equals(request(ScenarioCoordinator.HELLO + " " + fingerprint))) {
+                throw new CucumberException("Scenario coordinator on port " + port + " runs different scenarios, check features and tags of both");
+            }
+        } catch (RuntimeException e) {
+            close();
+            throw e;
+        }
+    }
+
+    /**
+     * Closes the connection, the coordinator then counts the worker as gone
+     */
+    synchronized void close() {
+        closeQuietly(out, in, socket);
+    }
+
+    private static void closeQuietly(Closeable... closeables) {
+        for (Closeable closeable : closeables) {
+            if (closeable != null) {
+                try {
+                    closeable.close();
+                } catch (IOException ignored) {
+                    //Closing after a failure, the failure is reported
+                }
+            }
+        }
+    }
+
+    /**
+     * Ask the coordinator for the next scenario
+     *
+     * @return index of the scenario in feature order, -1 once the coordinator has nothing left
+     */
+    synchronized int next() {
+        if (done) {
+            return -1;
+        }
+        String reply = request(ScenarioCoordinator.NEXT);
+        if (reply == null || !reply.startsWith(ScenarioCoordinator.RUN + " ")) {
+            done = true;
+            return -1;
+        }
+        return Integer.parseInt(reply.substring(ScenarioCoordinator.RUN.length() + 1));
+    }
+
+    /**
+     * Hand a scenario taken with {@link #next()} back to the coordinator without running it
+     *
+     * @param index index of the scenario in feature order
+     */
+    synchronized void requeue(int index) {
+        send(ScenarioCoordinator.REQUEUE + " " + index);
+        // The coordinator has something to hand out again, even if it said DONE to another thread meanwhile
+        done = false;
+    }
+
+    synchronized void duration(String id, long durationMillis) {
+        send(ScenarioCoordinator.DURATION + " " + durationMillis + " " + id);
+    }
+
+    synchronized void result(int index, boolean failed, long durationMillis) {
+        send(ScenarioCoordinator.RESULT + " " + index + " " + (failed ? "failed" : "passed") + " " + durationMillis);
+    }
+
+    private String request(String line) {
+        send(line);
+        try {
+            return in.readLine();
+        } catch (IOException e) {
+            throw new CucumberException("Lost connection to scenario coordinator on port " + port, e);
+        }
+    }
+
+    private void send(String line) {
+        try {
+            out.write(line);
+            out.write('\n');
+            out.flush();
+        } catch (IOException e) {
+            throw new CucumberException("Lost connection to scenario coordinator on port " + port, e);
+        }
+    }
+}
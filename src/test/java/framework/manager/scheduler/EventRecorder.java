@@ -0,0 +1,127 @@
+package test.java.framework.manager.scheduler;
+
+import gherkin.formatter.Formatter;
+import gherkin.formatter.Reporter;
+import gherkin.formatter.model.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiConsumer;
+
+/**
+ * Formatter and reporter that keeps the events of a scenario run on another thread,
+ * so they can be replayed later, in the right order, to the formatters of the thread that owns the report.
+ * <p>
+ * {@link #done()} and {@link #close()} are not recorded, they belong to the owner of the real formatters.
+ */
+public class EventRecorder implements Formatter, Reporter {
+
+    private final List<BiConsumer<Formatter, Reporter>> events = new ArrayList<>();
+
+    /**
+     * Send all recorded events to the given formatter and reporter
+     *
+     * @param formatter formatter to replay the events to
+     * @param reporter  reporter to replay the events to
+     */
+    public void replay(Formatter formatter, Reporter reporter) {
+        for (BiConsumer<Formatter, Reporter> event : events) {
+            event.accept(formatter, reporter);
+        }
+    }
+
+    @Override
+    public void syntaxError(String state, String event, List<String> legalEvents, String uri, Integer line) {
+        events.add((f, r) -> f.syntaxError(state, event, legalEvents, uri, line));
+    }
+
+    @Override
+    public void uri(String uri) {
+        events.add((f, r) -> f.uri(uri));
+    }
+
+    @Override
+    public void feature(Feature feature) {
+        events.add((f, r) -> f.feature(feature));
+    }
+
+    @Override
+    public void scenarioOutline(ScenarioOutline scenarioOutline) {
+        events.add((f, r) -> f.scenarioOutline(scenarioOutline));
+    }
+
+    @Override
+    public void examples(Examples examples) {
+        events.add((f, r) -> f.examples(examples));
+    }
+
+    @Override
+    public void startOfScenarioLifeCycle(Scenario scenario) {
+        events.add((f, r) -> f.startOfScenarioLifeCycle(scenario));
+    }
+
+    @Override
+    public void background(Background background) {
+        events.add((f, r) -> f.background(background));
+    }
+
+    @Override
+    public void scenario(Scenario scenario) {
+        events.add((f, r) -> f.scenario(scenario));
+    }
+
+    @Override
+    public void step(Step step) {
+        events.add((f, r) -> f.step(step));
+    }
+
+    @Override
+    public void endOfScenarioLifeCycle(Scenario scenario) {
+        events.add((f, r) -> f.endOfScenarioLifeCycle(scenario));
+    }
+
+    @Override
+    public void eof() {
+        events.add((f, r) -> f.eof());
+    }
+
+    @Override
+    public void done() {
+        // Owner of the real formatters is responsible for that
+    }
+
+    @Override
+    public void close() {
+        // Owner of the real formatters is responsible for that
+    }
+
+    @Override
+    public void before(Match match, Result result) {
+        events.add((f, r) -> r.before(match, result));
+    }
+
+    @Override
+    public void result(Result result) {
+        events.add((f, r) -> r.result(result));
+    }
+
+    @Override
+    public void after(Match match, Result result) {
+        events.add((f, r) -> r.after(match, result));
+    }
+
+    @Override
+    public void match(Match match) {
+        events.add((f, r) -> r.match(match));
+    }
+
+    @Override
+    public void embedding(String mimeType, byte[] data) {
+        events.add((f, r) -> r.embedding(mimeType, data));
+    }
+
+    @Override
+    public void write(String text) {
+        events.add((f, r) -> r.write(text));
+    }
+}
@@ -0,0 +1,77 @@
+package test.java.framework.manager.scheduler;
+
+import gherkin.formatter.Formatter;
+import gherkin.formatter.Reporter;
+import test.java.framework.manager.cucumber.runtime.Runtime;
+import test.java.framework.manager.cucumber.runtime.model.CucumberFeature;
+import test.java.framework.manager.cucumber.runtime.model.CucumberScenario;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Single example row of a scenario outline. It can be run by any free thread, its events are recorded
+ * and replayed in row order by the {@link OutlineTask} that owns it.
+ */
+public class ExampleRowTask extends ScenarioTask {
+
+    private final AtomicBoolean claimed = new AtomicBoolean();
+    // Thread that claimed the row when polling it, it holds the tag locks of the row
+    private volatile Thread claimedWithLocks;
+    private final EventRecorder events = new EventRecorder();
+    private final CountDownLatch outlineRowsLeft;
+
+    ExampleRowTask(CucumberFeature feature, CucumberScenario exampleScenario, ScenarioHistory history, TagLocks tagLocks,
+                   CountDownLatch outlineRowsLeft) {
+        super(feature, exampleScenario, history, tagLocks);
+        this.outlineRowsLeft = outlineRowsLeft;
+    }
+
+    /**
+     * Runs the row unless another thread already took it. Given formatter and reporter are not used,
+     * the events are recorded for the outline owner instead.
+     */
+    @Override
+    public void run(Formatter formatter, Reporter reporter, Runtime runtime) {
+        boolean polled = claimedWithLocks == Thread.currentThread();
+        if (!polled && !claimed.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            // The outline owner runs its rows one after the other and waits for their locks
+            super.run(events, events, runtime, polled);
+        } finally {
+            outlineRowsLeft.countDown();
+        }
+    }
+
+    /**
+     * Takes the tag locks of the row and claims it for the polling thread, unless the outline owner already did.
+     * A row claimed by the owner is taken off the queue with nothing to run.
+     */
+    @Override
+    boolean tryLock() {
+        if (claimed.get()) {
+            return true;
+        }
+        if (!tagLocks.tryAcquire(locks)) {
+            return false;
+        }
+        if (!claimed.compareAndSet(false, true)) {
+            // Lost to the outline owner meanwhile
+            tagLocks.release(locks);
+            return true;
+        }
+        claimedWithLocks = Thread.currentThread();
+        return true;
+    }
+
+    @Override
+    public boolean reportsFeature() {
+        return false;
+    }
+
+    void replay(Formatter formatter, Reporter reporter) {
+        events.replay(formatter, reporter);
+    }
+}
@@ -0,0 +1,110 @@
+package test.java.framework.manager.scheduler;
+
+import gherkin.formatter.Formatter;
+import gherkin.formatter.Reporter;
+import test.java.framework.manager.cucumber.runtime.CucumberException;
+import test.java.framework.manager.cucumber.runtime.Runtime;
+import test.java.framework.manager.cucumber.runtime.model.CucumberExamples;
+import test.java.framework.manager.cucumber.runtime.model.CucumberFeature;
+import test.java.framework.manager.cucumber.runtime.model.CucumberScenario;
+import test.java.framework.manager.cucumber.runtime.model.CucumberScenarioOutline;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Scenario outline whose example rows are handed out to all free threads.
+ * <p>
+ * The thread that takes the outline puts its rows at the head of the queue, runs whatever rows
+ * are still free itself, waits for the rest and then reports all of them in the original row order.
+ */
+public class OutlineTask extends ScenarioTask {
+
+    private final ScenarioQueue queue;
+    private final Map<CucumberExamples, List<ExampleRowTask>> rowsByExamples = new LinkedHashMap<>();
+    private final List<ExampleRowTask> rows = new ArrayList<>();
+    private final CountDownLatch rowsLeft;
+
+    OutlineTask(CucumberFeature feature, CucumberScenarioOutline outline, ScenarioHistory history, TagLocks tagLocks, ScenarioQueue queue) {
+        super(feature, outline, history, tagLocks);
+        this.queue = queue;
+
+        int rowCount = 0;
+        Map<CucumberExamples, List<CucumberScenario>> exampleScenarios = new LinkedHashMap<>();
+        for (CucumberExamples examples : outline.getCucumberExamplesList()) {
+            List<CucumberScenario> scenarios = examples.createExampleScenarios();
+            exampleScenarios.put(examples, scenarios);
+            rowCount += scenarios.size();
+        }
+
+        rowsLeft = new CountDownLatch(rowCount);
+        for (Map.Entry<CucumberExamples, List<CucumberScenario>> entry : exampleScenarios.entrySet()) {
+            List<ExampleRowTask> examplesRows = new ArrayList<>();
+            for (CucumberScenario scenario : entry.getValue()) {
+                examplesRows.add(new ExampleRowTask(feature, scenario, history, tagLocks, rowsLeft));
+            }
+            rowsByExamples.put(entry.getKey(), examplesRows);
+            rows.addAll(examplesRows);
+        }
+    }
+
+    /**
+     * @return total expected duration of all example rows
+     */
+    @Override
+    public long getEstimatedDuration() {
+        long duration = 0;
+        for (ExampleRowTask row : rows) {
+            duration += row.getEstimatedDuration();
+        }
+        return duration;
+    }
+
+    @Override
+    boolean usesTagLocks() {
+        return super.usesTagLocks() || rows.stream().anyMatch(ScenarioTask::usesTagLocks);
+    }
+
+    /**
+     * Outline has no steps of its own, tag locks are taken by each example row: when a free thread polls it,
+     * or by the owner running the rows left
+     */
+    @Override
+    boolean tryLock() {
+        return true;
+    }
+
+    @Override
+    public void run(Formatter formatter, Reporter reporter, Runtime runtime) {
+        CucumberScenarioOutline outline = (CucumberScenarioOutline) getStatement();
+        System.out.println("Starting scenario outline: '" + outline.getVisualName() + "' with " + rows.size() + " example(s)");
+
+        queue.pushFirst(rows);
+        for (ExampleRowTask row : rows) {
+            row.run(formatter, reporter, runtime);
+        }
+        awaitRows();
+        setFailed(rows.stream().anyMatch(ScenarioTask::isFailed));
+
+        outline.formatOutline(formatter);
+        for (Map.Entry<CucumberExamples, List<ExampleRowTask>> entry : rowsByExamples.entrySet()) {
+            entry.getKey().format(formatter);
+            for (ExampleRowTask row : entry.getValue()) {
+                row.replay(formatter, reporter);
+            }
+        }
+        System.out.println("Scenario outline completed: '" + outline.getVisualName() + "'");
+    }
+
+    private void awaitRows() {
+        try {
+            rowsLeft.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CucumberException("Interrupted while waiting for examples of " + getStatement().getVisualName(), e);
+        }
+    }
+}
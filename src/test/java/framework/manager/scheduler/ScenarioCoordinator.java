@@ -0,0 +1,212 @@
+package test.java.framework.manager.scheduler;
+
+import test.java.framework.manager.cucumber.runtime.CucumberException;
+import test.java.framework.manager.cucumber.runtime.RuntimeOptions;
+import test.java.framework.manager.cucumber.runtime.io.MultiLoader;
+import test.java.framework.manager.cucumber.runtime.model.CucumberFeature;
+
+import java.io.*;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Holds the scenario queue of a whole run and hands scenarios out to worker JVMs on the same machine
+ * as soon as they get free, so every browser slot is used until the very end of the run.
+ * <p>
+ * Start the coordinator with the features path, the same cucumber.options as the workers and the port to listen on:
+ * <pre>
+ * java -Dcoordinator=5555 -Dcucumber.options="--tags @nightly" test.java.framework.manager.scheduler.ScenarioCoordinator src/test/resources/features/web/
+ * </pre>
+ * then start any number of workers (e.g. one per local Selenium node) with {@code -Dcoordinator=5555}.
+ * Workers send back the result of every scenario. The coordinator prints them as they come, keeps the scenario
+ * history of the run and exits with status 1 if any scenario failed or could not be run.
+ * Scenarios taken by a worker that disconnects without finishing them are handed out again.
+ * <p>
+ * Protocol, one line per message: worker says {@code HELLO fingerprint} once, then {@code NEXT} and gets
+ * {@code RUN index} or {@code DONE}, and reports {@code RESULT index status millis} and {@code DURATION millis id}.
+ * A worker that can't run a scenario yet because of its tag locks hands it back with {@code REQUEUE index}.
+ */
+public class ScenarioCoordinator {
+
+    static final String HELLO = "HELLO";
+    static final String OK = "OK";
+    static final String NEXT = "NEXT";
+    static final String RUN = "RUN";
+    static final String DONE = "DONE";
+    static final String RESULT = "RESULT";
+    static final String REQUEUE = "REQUEUE";
+    static final String DURATION = "DURATION";
+
+    private final ScenarioQueue queue;
+    private final ScenarioHistory history;
+    private final List<ScenarioTask> tasks;
+    private final String fingerprint;
+    private final Set<ScenarioTask> inFlight = Collections.newSetFromMap(new IdentityHashMap<>());
+    private final CountDownLatch finished = new CountDownLatch(1);
+    private int passed;
+    private int failed;
+    private int connections;
+    private boolean workersSeen;
+
+    ScenarioCoordinator(List<CucumberFeature> features, ScenarioHistory history, boolean longestFirst) {
+        this.queue = new ScenarioQueue(features, history, longestFirst, Shard.ALL);
+        this.history = history;
+        this.tasks = queue.getFeatureOrder();
+        queue.refuseTagLocks("a scenario coordinator");
+        List<String> ids = new ArrayList<>();
+        for (ScenarioTask task : tasks) {
+            ids.add(task.getId());
+        }
+        this.fingerprint = fingerprint(ids);
+    }
+
+    public static void main(String[] args) throws Throwable {
+        int port = Integer.parseInt(System.getProperty("coordinator", "5555"));
+        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        RuntimeOptions options = new RuntimeOptions(Arrays.asList(args));
+        List<CucumberFeature> features = options.cucumberFeatures(new MultiLoader(classLoader));
+
+        ScenarioCoordinator coordinator = new ScenarioCoordinator(features, ScenarioQueue.loadHistory(), ScenarioQueue.isLongestFirst());
+        System.exit(coordinator.serve(port) ? 0 : 1);
+    }
+
+    /**
+     * Same scenarios in the same order give the same fingerprint, so a worker can't run a scenario
+     * other than the one the coordinator means by its index
+     *
+     * @param ids ids of all scenarios in feature order
+     * @return fingerprint of the scenario list
+     */
+    static String fingerprint(List<String> ids) {
+        return ids.size() + ":" + Integer.toHexString(ids.hashCode());
+    }
+
+    /**
+     * Hands out scenarios until all of them have been run, or until all workers are gone
+     *
+     * @param port port to listen on, loopback interface only
+     * @return true if all scenarios were run and passed
+     */
+    boolean serve(int port) throws IOException, InterruptedException {
+        if (tasks.isEmpty()) {
+            System.out.println("No scenarios to coordinate");
+            return true;
+        }
+        System.out.println("Coordinating " + tasks.size() + " scenario(s) on port " + port);
+        try (ServerSocket server = new ServerSocket(port, 50, InetAddress.getLoopbackAddress())) {
+            Thread acceptor = new Thread(() -> accept(server), "scenario-coordinator");
+            acceptor.setDaemon(true);
+            acceptor.start();
+            finished.await();
+        }
+        history.save();
+
+        int notRun = queue.size();
+        System.out.println(String.format("Coordinator finished: %d passed, %d failed, %d not run", passed, failed, notRun));
+        return failed == 0 && notRun == 0;
+    }
+
+    private void accept(ServerSocket server) {
+        while (!server.isClosed()) {
+            try {
+                Socket socket = server.accept();
+                synchronized (this) {
+                    connections++;
+                    workersSeen = true;
+                }
+                Thread worker = new Thread(() -> serve(socket), "scenario-coordinator-" + socket.getPort());
+                worker.setDaemon(true);
+                worker.start();
+            } catch (IOException e) {
+                //Server closed
+            }
+        }
+    }
+
+    private void serve(Socket socket) {
+        List<ScenarioTask> taken = new ArrayList<>();
+        try (Socket s = socket;
+             BufferedReader in = new BufferedReader(new InputStreamReader(s.getInputStream(), StandardCharsets.UTF_8));
+             Writer out = new BufferedWriter(new OutputStreamWriter(s.getOutputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = in.readLine()) != null) {
+                String reply = handle(line, taken);
+                if (reply != null) {
+                    out.write(reply);
+                    out.write('\n');
+                    out.flush();
+                }
+            }
+        } catch (IOException | CucumberException e) {
+            System.out.println("Lost worker on port " + socket.getPort() + ": " + e.getMessage());
+        } finally {
+            disconnected(taken);
+        }
+    }
+
+    private synchronized String handle(String line, List<ScenarioTask> taken) {
+        String command = line.split(" ", 2)[0];
+        String[] parts = line.split(" ", DURATION.equals(command) ? 3 : 4);
+        switch (command) {
+            case HELLO:
+                return parts.length > 1 && fingerprint.equals(parts[1]) ? OK : DONE;
+            case NEXT:
+                ScenarioTask task = queue.pollIgnoringLocks();
+                if (task == null) {
+                    return DONE;
+                }
+                int index = queue.positionOf(task);
+                inFlight.add(task);
+                taken.add(task);
+                return RUN + " " + index;
+            case RESULT:
+                ScenarioTask completed = tasks.get(Integer.parseInt(parts[1]));
+                boolean scenarioFailed = "failed".equals(parts[2]);
+                if (scenarioFailed) {
+                    failed++;
+                } else {
+                    passed++;
+                }
+                inFlight.remove(completed);
+                taken.remove(completed);
+                System.out.println(String.format("[%d/%d] %s: '%s' (%s ms)", passed + failed, tasks.size(),
+                        parts[2], completed.getStatement().getVisualName(), parts[3]));
+                checkFinished();
+                return null;
+            case REQUEUE:
+                ScenarioTask returned = tasks.get(Integer.parseInt(parts[1]));
+                if (inFlight.remove(returned)) {
+                    taken.remove(returned);
+                    queue.requeue(returned);
+                }
+                return null;
+            case DURATION:
+                history.record(parts[2], Long.parseLong(parts[1]));
+                return null;
+            default:
+                throw new CucumberException("Unknown message from worker: " + line);
+        }
+    }
+
+    private synchronized void disconnected(List<ScenarioTask> taken) {
+        connections--;
+        if (!taken.isEmpty()) {
+            System.out.println("Worker left " + taken.size() + " scenario(s) unfinished, handing them out again");
+            for (ScenarioTask task : taken) {
+                inFlight.remove(task);
+            }
+            queue.pushFirst(taken);
+        }
+        checkFinished();
+    }
+
+    private void checkFinished() {
+        if (inFlight.isEmpty() && (queue.size() == 0 || workersSeen && connections == 0)) {
+            finished.countDown();
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package test.java.framework.manager.scheduler;
+
+import test.java.framework.manager.cucumber.runtime.CucumberException;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Durations of scenarios from previous runs, keyed by scenario id.
+ * <p>
+ * Loaded from a properties file before the run and written back after it, so the next run can start the
+ * longest scenarios first. A new measurement is averaged with the previous one to smooth out occasional outliers.
+ */
+public class ScenarioHistory {
+
+    private final File file;
+    private final Map<String, Long> previousDurations = new ConcurrentHashMap<>();
+    private final Map<String, Long> durations = new ConcurrentHashMap<>();
+    private long averageDuration;
+
+    public ScenarioHistory(File file) {
+        this.file = file;
+        load();
+    }
+
+    private void load() {
+        if (!file.exists()) {
+            return;
+        }
+        Properties properties = new Properties();
+        try (Reader reader = new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8)) {
+            properties.load(reader);
+        } catch (IOException e) {
+            throw new CucumberException("Failed to read scenario history: " + file, e);
+        }
+        for (String id : properties.stringPropertyNames()) {
+            try {
+                previousDurations.put(id, Long.valueOf(properties.getProperty(id)));
+            } catch (NumberFormatException ignored) {
+                //Broken entry, scenario will be treated as unknown
+            }
+        }
+        durations.putAll(previousDurations);
+        averageDuration = (long) previousDurations.values().stream().mapToLong(Long::longValue).average().orElse(0);
+    }
+
+    /**
+     * @param id scenario id
+     * @return duration in milliseconds measured by previous runs or null if the scenario has never been run
+     */
+    public Long getDuration(String id) {
+        return previousDurations.get(id);
+    }
+
+    /**
+     * @return average of all known durations in milliseconds, 0 if nothing is known yet
+     */
+    public long getAverageDuration() {
+        return averageDuration;
+    }
+
+    /**
+     * Store duration of the scenario run
+     *
+     * @param id             scenario id
+     * @param durationMillis how long the scenario took, in milliseconds
+     */
+    public void record(String id, long durationMillis) {
+        Long previous = previousDurations.get(id);
+        durations.put(id, previous == null ? durationMillis : (previous + durationMillis) / 2);
+    }
+
+    /**
+     * Write all durations known so far to the history file
+     */
+    public synchronized void save() {
+        Properties properties = new Properties();
+        for (Map.Entry<String, Long> duration : durations.entrySet()) {
+            properties.setProperty(duration.getKey(), String.valueOf(duration.getValue()));
+        }
+        File dir = file.getAbsoluteFile().getParentFile();
+        if (dir != null && !dir.exists() && !dir.mkdirs()) {
+            throw new CucumberException("Failed to create directory for scenario history: " + dir);
+        }
+        try (Writer writer = new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8)) {
+            properties.store(writer, "Scenario durations in milliseconds");
+        } catch (IOException e) {
+            throw new CucumberException("Failed to write scenario history: " + file, e);
+        }
+    }
+}
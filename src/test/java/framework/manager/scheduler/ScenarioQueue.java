@@ -0,0 +1,341 @@
+package test.java.framework.manager.scheduler;
+
+import test.java.framework.manager.cucumber.runtime.CucumberException;
+import test.java.framework.manager.cucumber.runtime.model.CucumberFeature;
+import test.java.framework.manager.cucumber.runtime.model.CucumberScenarioOutline;
+import test.java.framework.manager.cucumber.runtime.model.CucumberTagStatement;
+
+import java.io.File;
+import java.lang.management.ManagementFactory;
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.function.Supplier;
+
+/**
+ * Process-wide queue of scenarios shared by all worker threads.
+ * <p>
+ * The first thread to ask for the queue loads the features and splits them into scenarios. Every thread
+ * then pulls the next scenario as soon as it gets free, so a long feature is spread across all threads
+ * instead of keeping a single one busy. Example rows of scenario outlines are spread the same way, see {@link OutlineTask}.
+ * <p>
+ * By default scenarios are taken in the order of feature files. With {@code -Dscheduling=duration} the longest
+ * scenarios, according to durations stored by previous runs (see {@link ScenarioHistory}), are taken first,
+ * so that no long scenario is left to start at the very end of the run. History file location can be changed
+ * with {@code -DscenarioHistory=path/to/file}.
+ * <p>
+ * With {@code -Dshard=i/n} the queue only holds the scenarios of the given shard, see {@link Shard}.
+ * <p>
+ * With {@code -Dcoordinator=port} the JVM is a worker of a {@link ScenarioCoordinator} listening on that local port:
+ * the scenarios are taken from the coordinator instead, one at a time, and their results are sent back to it.
+ * <p>
+ * Tag locks (see {@link TagLocks}) only hold within a JVM, scenarios using them can't be run by shards or
+ * coordinator workers and the queue refuses them.
+ */
+public class ScenarioQueue {
+
+    private static volatile ScenarioQueue instance;
+    private static final Object instanceLock = new Object();
+
+    private static final String DEFAULT_HISTORY_FILE = ".cucumber/scenario-history.properties";
+
+    private final Map<Tier, Deque<ScenarioTask>> tasks = new EnumMap<>(Tier.class);
+    private final boolean separateTiers;
+    private final List<ScenarioTask> featureOrder;
+    private final Map<ScenarioTask, Integer> positions = new IdentityHashMap<>();
+    private final ScenarioHistory history;
+    private final CoordinatorClient coordinator;
+    private final TagLocks tagLocks = TagLocks.fromSystemProperty();
+    private final boolean tagLocksUsed;
+
+    ScenarioQueue(List<CucumberFeature> features, ScenarioHistory history, boolean longestFirst, Shard shard) {
+        this(features, history, longestFirst, shard, null, false);
+    }
+
+    private ScenarioQueue(List<CucumberFeature> features, ScenarioHistory history, boolean longestFirst, Shard shard,
+                          CoordinatorClient coordinator, boolean separateTiers) {
+        this.history = history;
+        this.coordinator = coordinator;
+        this.separateTiers = separateTiers;
+        for (Tier tier : Tier.values()) {
+            tasks.put(tier, new ConcurrentLinkedDeque<>());
+        }
+
+        List<ScenarioTask> allTasks = new ArrayList<>();
+        for (CucumberFeature feature : features) {
+            for (CucumberTagStatement statement : feature.getFeatureElements()) {
+                if (!shard.contains(statement.getGherkinModel().getId())) {
+                    continue;
+                }
+                if (statement instanceof CucumberScenarioOutline) {
+                    allTasks.add(new OutlineTask(feature, (CucumberScenarioOutline) statement, history, tagLocks, this));
+                } else {
+                    allTasks.add(new ScenarioTask(feature, statement, history, tagLocks));
+                }
+            }
+        }
+        featureOrder = Collections.unmodifiableList(new ArrayList<>(allTasks));
+        tagLocksUsed = featureOrder.stream().anyMatch(ScenarioTask::usesTagLocks);
+        if (!shard.isAll()) {
+            refuseTagLocks("-Dshard=" + shard);
+        } else if (coordinator != null) {
+            refuseTagLocks("-Dcoordinator");
+        }
+        for (int i = 0; i < featureOrder.size(); i++) {
+            positions.put(featureOrder.get(i), i);
+        }
+
+        if (longestFirst) {
+            allTasks.sort(Comparator.comparingLong(ScenarioTask::getEstimatedDuration).reversed());
+        }
+        if (coordinator == null) {
+            for (ScenarioTask task : allTasks) {
+                dequeOf(task).addLast(task);
+            }
+        }
+    }
+
+    /**
+     * Get the queue shared by all threads, creating it on the first call
+     *
+     * @param features loads the features to run. Called only once per JVM
+     * @return shared queue
+     */
+    public static ScenarioQueue getInstance(Supplier<List<CucumberFeature>> features) {
+        ScenarioQueue queue = instance;
+        if (queue == null) {
+            synchronized (instanceLock) {
+                queue = instance;
+                if (queue == null) {
+                    String coordinatorPort = System.getProperty("coordinator");
+                    queue = coordinatorPort == null
+                            ? new ScenarioQueue(features.get(), loadHistory(), isLongestFirst(), Shard.fromSystemProperty(),
+                            null, ApiTier.isEnabled())
+                            : connect(features.get(), Integer.parseInt(coordinatorPort));
+                    instance = queue;
+                }
+            }
+        }
+        return queue;
+    }
+
+    private static ScenarioQueue connect(List<CucumberFeature> features, int port) {
+        List<String> ids = new ArrayList<>();
+        for (CucumberFeature feature : features) {
+            for (CucumberTagStatement statement : feature.getFeatureElements()) {
+                ids.add(statement.getGherkinModel().getId());
+            }
+        }
+        CoordinatorClient coordinator = new CoordinatorClient(port, ScenarioCoordinator.fingerprint(ids));
+        File historyFile = new File(System.getProperty("scenarioHistory", DEFAULT_HISTORY_FILE));
+        try {
+            return new ScenarioQueue(features, new CoordinatedHistory(historyFile, coordinator), false, Shard.ALL, coordinator, false);
+        } catch (RuntimeException e) {
+            coordinator.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Fails if any scenario has tag locks, for runs split between JVMs which would each hold the locks on their own
+     *
+     * @param mode option splitting the run, for the message
+     */
+    void refuseTagLocks(String mode) {
+        for (ScenarioTask task : featureOrder) {
+            if (task.usesTagLocks()) {
+                throw new CucumberException(String.format("Scenario '%s' uses tag locks (@exclusive, @serial, @lock(name) or -DtagLimits), " +
+                        "they only hold within one JVM and can't be combined with %s. Run such scenarios in a separate run without it",
+                        task.getStatement().getVisualName(), mode));
+            }
+        }
+    }
+
+    static ScenarioHistory loadHistory() {
+        return new ScenarioHistory(new File(System.getProperty("scenarioHistory", DEFAULT_HISTORY_FILE)));
+    }
+
+    static boolean isLongestFirst() {
+        return "duration".equalsIgnoreCase(System.getProperty("scheduling", "feature"));
+    }
+
+    /**
+     * Take the next scenario to run. Example rows of outlines being run are taken first,
+     * then scenarios of this queue, or of the coordinator for a worker JVM.
+     * Scenarios waiting for a tag lock (see {@link TagLocks}) are skipped, as are later scenarios wanting any lock
+     * of a skipped one, every later scenario behind an {@code @exclusive} one. Locked scenarios therefore start in
+     * queue order as soon as their locks are free, instead of once nothing else is left. If all remaining scenarios
+     * are waiting, the call blocks until a running scenario releases its locks. A worker JVM hands
+     * scenarios it can't lock back to the coordinator, so another worker can run them.
+     * <p>
+     * With the API tier enabled, API threads only take @no-driver scenarios. Browser threads take the
+     * others first and help with @no-driver ones once no browser scenario is left.
+     * <p>
+     * When no scenario has tag locks, the head of the concurrent deques is taken without locking. Otherwise the
+     * deques are scanned under the queue lock, so that skipped scenarios keep their place.
+     *
+     * @param tier tier of the calling thread
+     * @return next scenario or null if all scenarios the thread may run have been taken
+     */
+    public ScenarioTask poll(Tier tier) {
+        List<Deque<ScenarioTask>> eligible = tier == Tier.API
+                ? Collections.singletonList(tasks.get(Tier.API))
+                : Arrays.asList(tasks.get(Tier.BROWSER), tasks.get(Tier.API));
+        Set<Integer> returnedToCoordinator = new HashSet<>();
+        while (true) {
+            long releases = tagLocks.releaseCount();
+            boolean localEmpty;
+            if (tagLocksUsed) {
+                synchronized (tasks) {
+                    ScenarioTask task = takeRunnable(eligible);
+                    if (task != null) {
+                        return task;
+                    }
+                    localEmpty = eligible.stream().allMatch(Deque::isEmpty);
+                }
+            } else {
+                ScenarioTask task = takeFirst(eligible);
+                if (task != null) {
+                    return task;
+                }
+                localEmpty = true;
+            }
+            // Asked outside the queue lock, local threads don't wait for the coordinator round trip
+            int index = coordinator != null ? coordinator.next() : -1;
+            if (index >= 0) {
+                ScenarioTask task = featureOrder.get(index);
+                synchronized (tasks) {
+                    if (task.tryLock()) {
+                        return task;
+                    }
+                }
+                // Another worker may be free to run it
+                coordinator.requeue(index);
+                if (returnedToCoordinator.add(index)) {
+                    continue;
+                }
+                // Got it back, the scenarios left wait for locks held on this JVM
+                returnedToCoordinator.clear();
+            } else if (localEmpty) {
+                return null;
+            }
+            tagLocks.awaitRelease(releases);
+        }
+    }
+
+    /**
+     * Take the next scenario regardless of tag locks, for the coordinator which hands scenarios out but doesn't run them
+     */
+    ScenarioTask pollIgnoringLocks() {
+        return tasks.get(Tier.BROWSER).poll();
+    }
+
+    /**
+     * Without tag locks {@link ScenarioTask#tryLock()} only claims example rows and can't fail
+     */
+    private ScenarioTask takeFirst(List<Deque<ScenarioTask>> eligible) {
+        for (Deque<ScenarioTask> deque : eligible) {
+            ScenarioTask task = deque.pollFirst();
+            if (task != null && task.tryLock()) {
+                return task;
+            }
+        }
+        return null;
+    }
+
+    private ScenarioTask takeRunnable(List<Deque<ScenarioTask>> eligible) {
+        TagLocks.Pending pending = new TagLocks.Pending();
+        for (Deque<ScenarioTask> deque : eligible) {
+            for (Iterator<ScenarioTask> iterator = deque.iterator(); iterator.hasNext(); ) {
+                ScenarioTask task = iterator.next();
+                if (!pending.blocks(task.locks) && task.tryLock()) {
+                    iterator.remove();
+                    return task;
+                }
+                pending.add(task.locks);
+            }
+        }
+        return null;
+    }
+
+    private Deque<ScenarioTask> dequeOf(ScenarioTask task) {
+        return tasks.get(separateTiers ? task.getTier() : Tier.BROWSER);
+    }
+
+    /**
+     * Called by the thread that polled the task once it has been run
+     *
+     * @param task           completed task
+     * @param durationMillis how long the task took, in milliseconds
+     */
+    public void completed(ScenarioTask task, long durationMillis) {
+        Integer position = positions.get(task);
+        if (coordinator != null && position != null) {
+            coordinator.result(position, task.isFailed(), durationMillis);
+        }
+    }
+
+    /**
+     * @return index of the task in feature order
+     */
+    int positionOf(ScenarioTask task) {
+        return positions.get(task);
+    }
+
+    /**
+     * @return all scenarios of the queue in the order of feature files, whether taken or not
+     */
+    List<ScenarioTask> getFeatureOrder() {
+        return featureOrder;
+    }
+
+    /**
+     * Report directory of the current JVM and thread. Shards and worker JVMs use distinct names,
+     * so the directories of a whole run can be copied into one folder and merged.
+     *
+     * @param threadId id of the thread writing the report
+     * @return report directory name
+     */
+    public static String reportDirName(long threadId) {
+        if (System.getProperty("coordinator") != null) {
+            String jvmName = ManagementFactory.getRuntimeMXBean().getName();
+            return "worker" + jvmName.split("@")[0] + "-thread" + threadId;
+        }
+        return Shard.fromSystemProperty().reportDirName(threadId);
+    }
+
+    /**
+     * Put a task handed back by a worker at the end of the queue, so it is handed out again after the others
+     *
+     * @param task task to be run later
+     */
+    void requeue(ScenarioTask task) {
+        dequeOf(task).addLast(task);
+    }
+
+    /**
+     * Put tasks at the head of the queue, keeping their order, so they are taken before anything else
+     *
+     * @param urgentTasks tasks to be run next
+     */
+    void pushFirst(List<? extends ScenarioTask> urgentTasks) {
+        for (int i = urgentTasks.size() - 1; i >= 0; i--) {
+            ScenarioTask task = urgentTasks.get(i);
+            dequeOf(task).addFirst(task);
+        }
+    }
+
+    /**
+     * Store durations of scenarios completed so far for the next runs.
+     * Called by every thread once it has nothing left to run, the last call has complete history
+     */
+    public void saveHistory() {
+        history.save();
+    }
+
+    /**
+     * @return number of scenarios not taken yet
+     */
+    public int size() {
+        return tasks.values().stream().mapToInt(Deque::size).sum();
+    }
+}
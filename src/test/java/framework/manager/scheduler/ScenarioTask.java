@@ -0,0 +1,136 @@
+package test.java.framework.manager.scheduler;
+
+import gherkin.formatter.Formatter;
+import gherkin.formatter.Reporter;
+import test.java.framework.manager.cucumber.runtime.Runtime;
+import test.java.framework.manager.cucumber.runtime.model.CucumberFeature;
+import test.java.framework.manager.cucumber.runtime.model.CucumberTagStatement;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Smallest unit of work handed out by {@link ScenarioQueue}: a single scenario (or scenario outline)
+ * together with the feature it belongs to.
+ */
+public class ScenarioTask {
+
+    private final CucumberFeature feature;
+    private final CucumberTagStatement statement;
+    final ScenarioHistory history;
+    final TagLocks tagLocks;
+    final TagLocks.Needed locks;
+    private final Tier tier;
+    private boolean locksHeld;
+    private volatile boolean failed;
+
+    public ScenarioTask(CucumberFeature feature, CucumberTagStatement statement, ScenarioHistory history, TagLocks tagLocks) {
+        this.feature = feature;
+        this.statement = statement;
+        this.history = history;
+        this.tagLocks = tagLocks;
+        this.locks = tagLocks.needed(statement.tagsAndInheritedTags());
+        this.tier = Tier.of(statement.tagsAndInheritedTags());
+    }
+
+    /**
+     * @return id of the scenario, stable between runs as long as feature, scenario and example names don't change
+     */
+    public String getId() {
+        return statement.getGherkinModel().getId();
+    }
+
+    /**
+     * @return how long the scenario is expected to take in milliseconds, based on previous runs.
+     * Average of all known scenarios if this one has never been run
+     */
+    public long getEstimatedDuration() {
+        Long duration = history.getDuration(getId());
+        return duration != null ? duration : history.getAverageDuration();
+    }
+
+    /**
+     * @return API for scenarios tagged @no-driver, BROWSER otherwise
+     */
+    public Tier getTier() {
+        return tier;
+    }
+
+    public CucumberFeature getFeature() {
+        return feature;
+    }
+
+    public CucumberTagStatement getStatement() {
+        return statement;
+    }
+
+    /**
+     * @return true if the scenario, or any example row of an outline, had a failing step or hook
+     */
+    public boolean isFailed() {
+        return failed;
+    }
+
+    void setFailed(boolean failed) {
+        this.failed = failed;
+    }
+
+    /**
+     * @return false if the task reports its events somewhere else than to the formatters of the thread running it
+     */
+    public boolean reportsFeature() {
+        return true;
+    }
+
+    /**
+     * @return true if the scenario, or any example row of an outline, has tag locks, see {@link TagLocks}
+     */
+    boolean usesTagLocks() {
+        return locks.isLocking();
+    }
+
+    /**
+     * Called by the queue, under its lock, before handing the task out
+     *
+     * @return false if the scenario has to wait for a tag lock held by another scenario
+     */
+    boolean tryLock() {
+        locksHeld = tagLocks.tryAcquire(locks);
+        return locksHeld;
+    }
+
+    /**
+     * Runs the scenario. The caller is responsible for reporting the feature (uri, feature, eof) around it.
+     *
+     * @param formatter formatter of the current thread
+     * @param reporter  reporter of the current thread
+     * @param runtime   runtime of the current thread
+     */
+    public void run(Formatter formatter, Reporter reporter, Runtime runtime) {
+        boolean locksTaken = locksHeld;
+        locksHeld = false;
+        run(formatter, reporter, runtime, locksTaken);
+    }
+
+    /**
+     * @param locksTaken true if the current thread already holds the tag locks of the scenario, they are taken
+     *                   otherwise. Released in any case once the scenario is done
+     */
+    final void run(Formatter formatter, Reporter reporter, Runtime runtime, boolean locksTaken) {
+        if (!locksTaken) {
+            tagLocks.acquire(locks);
+        }
+        try {
+            System.out.println("Starting scenario: '" + statement.getVisualName() + "'");
+            int errorsBefore = runtime.getErrors().size();
+            long start = System.nanoTime();
+            statement.run(formatter, reporter, runtime);
+            List<Throwable> errors = runtime.getErrors();
+            failed = errors.subList(errorsBefore, errors.size()).stream().anyMatch(error -> !Runtime.isPending(error));
+            history.record(getId(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            System.out.println("Scenario completed: '" + statement.getVisualName() + "'");
+        } finally {
+            tagLocks.release(locks);
+        }
+    }
+}
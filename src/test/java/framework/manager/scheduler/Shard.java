@@ -0,0 +1,76 @@
+package test.java.framework.manager.scheduler;
+
+import test.java.framework.manager.cucumber.runtime.CucumberException;
+
+/**
+ * Part of the run executed by this JVM, set with {@code -Dshard=i/n} where i is 1..n.
+ * <p>
+ * Scenarios are spread over n buckets by the hash of their id, so every JVM (or machine) given the same
+ * features and the same n picks a stable, disjoint set of scenarios and together they run all of them.
+ * Scenario outlines are kept whole in one shard. Without the property everything is run by a single shard.
+ */
+public class Shard {
+
+    public static final Shard ALL = new Shard(1, 1);
+
+    private final int index;
+    private final int count;
+
+    Shard(int index, int count) {
+        if (count < 1 || index < 1 || index > count) {
+            throw new CucumberException(String.format("Invalid shard %d/%d, expected i/n with 1 <= i <= n", index, count));
+        }
+        this.index = index;
+        this.count = count;
+    }
+
+    /**
+     * @return shard given by -Dshard=i/n or {@link #ALL} if not set
+     */
+    public static Shard fromSystemProperty() {
+        String shard = System.getProperty("shard");
+        return shard == null || shard.trim().isEmpty() ? ALL : parse(shard.trim());
+    }
+
+    static Shard parse(String shard) {
+        String[] parts = shard.split("/");
+        if (parts.length != 2) {
+            throw new CucumberException("Invalid shard " + shard + ", expected i/n, e.g. -Dshard=1/4");
+        }
+        try {
+            return new Shard(Integer.parseInt(parts[0].trim()), Integer.parseInt(parts[1].trim()));
+        } catch (NumberFormatException e) {
+            throw new CucumberException("Invalid shard " + shard + ", expected i/n, e.g. -Dshard=1/4", e);
+        }
+    }
+
+    /**
+     * String.hashCode is specified by the JLS, so the bucket of a scenario is the same on every JVM
+     *
+     * @param scenarioId gherkin id of the scenario or outline
+     * @return true if the scenario is run by this shard
+     */
+    public boolean contains(String scenarioId) {
+        return count == 1 || Math.floorMod(scenarioId.hashCode(), count) == index - 1;
+    }
+
+    public boolean isAll() {
+        return count == 1;
+    }
+
+    /**
+     * Report directories of all shards can be copied into one folder and merged together,
+     * so each shard prefixes its directories to keep them apart.
+     *
+     * @param threadId id of the thread writing the report
+     * @return report directory name, e.g. shard2of4-thread13, or just the thread id when not sharded
+     */
+    public String reportDirName(long threadId) {
+        return isAll() ? String.valueOf(threadId) : String.format("shard%dof%d-thread%d", index, count, threadId);
+    }
+
+    @Override
+    public String toString() {
+        return index + "/" + count;
+    }
+}
@@ -0,0 +1,232 @@
+package test.java.framework.manager.scheduler;
+
+import gherkin.formatter.model.Tag;
+import test.java.framework.manager.cucumber.runtime.CucumberException;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps scenarios that share a resource from running at the same time, based on their tags:
+ * <ul>
+ * <li>{@code @exclusive} - the scenario runs alone, no other scenario runs in the meantime</li>
+ * <li>{@code @serial} - only one {@code @serial} scenario runs at a time</li>
+ * <li>{@code @lock(name)} - only one scenario with the same name runs at a time, e.g. {@code @lock(admin-account)}</li>
+ * <li>{@code -DtagLimits=@payments:2,@search:3} - at most the given number of scenarios with the tag run at a time</li>
+ * </ul>
+ * Other scenarios run fully parallel. Each lock is a semaphore created on first use, a scenario takes
+ * all of its semaphores in name order so that two scenarios never wait for each other.
+ * <p>
+ * Scenarios keep their queue order on the locks they share: once a scenario can't take its locks, the queue holds
+ * back later scenarios wanting any of them (see {@link Pending}), every scenario when it is {@code @exclusive}. The
+ * semaphores are fair, so a thread waiting for locks in {@link #acquire} is not overtaken by {@link #tryAcquire} either.
+ * <p>
+ * Locks only hold within the JVM. Shards and workers of a coordinator can't share them, so scenarios using them
+ * are refused there, see {@link ScenarioQueue}.
+ */
+public class TagLocks {
+
+    static final String EXCLUSIVE = "@exclusive";
+    static final String SERIAL = "@serial";
+    private static final String LOCK_PREFIX = "@lock(";
+    private static final int ALL_PERMITS = Integer.MAX_VALUE;
+
+    private final Semaphore exclusive = new Semaphore(ALL_PERMITS, true);
+    private final Map<String, Integer> limits;
+    private final Map<String, Semaphore> semaphores = new ConcurrentHashMap<>();
+    private final Object releaseMonitor = new Object();
+    private long releases;
+
+    TagLocks(Map<String, Integer> limits) {
+        this.limits = limits;
+    }
+
+    /**
+     * @return locks with limits given by -DtagLimits=@tag:n,@other:m
+     */
+    static TagLocks fromSystemProperty() {
+        Map<String, Integer> limits = new HashMap<>();
+        String property = System.getProperty("tagLimits", "");
+        for (String limit : property.split(",")) {
+            if (limit.trim().isEmpty()) {
+                continue;
+            }
+            String[] parts = limit.trim().split(":");
+            int permits = 0;
+            try {
+                permits = parts.length == 2 ? Integer.parseInt(parts[1].trim()) : 0;
+            } catch (NumberFormatException ignored) {
+                //Reported below
+            }
+            if (permits < 1) {
+                throw new CucumberException("Invalid tag limit '" + limit + "', expected @tag:n with n >= 1, e.g. -DtagLimits=@payments:2");
+            }
+            limits.put(parts[0].trim(), permits);
+        }
+        return new TagLocks(limits);
+    }
+
+    /**
+     * @param tags tags of the scenario, including inherited ones
+     * @return locks the scenario has to hold while running
+     */
+    Needed needed(Collection<Tag> tags) {
+        SortedMap<String, Integer> named = new TreeMap<>();
+        boolean isExclusive = false;
+        for (Tag tag : tags) {
+            String name = tag.getName();
+            if (EXCLUSIVE.equals(name)) {
+                isExclusive = true;
+            } else if (SERIAL.equals(name)) {
+                named.put(SERIAL, 1);
+            } else if (name.startsWith(LOCK_PREFIX) && name.endsWith(")")) {
+                named.put(name, 1);
+            } else if (limits.containsKey(name)) {
+                named.put(name, limits.get(name));
+            }
+        }
+        List<Semaphore> needed = new ArrayList<>();
+        for (Map.Entry<String, Integer> entry : named.entrySet()) {
+            needed.add(semaphores.computeIfAbsent(entry.getKey(), key -> new Semaphore(entry.getValue(), true)));
+        }
+        return new Needed(isExclusive ? ALL_PERMITS : 1, needed);
+    }
+
+    /**
+     * @return true if all locks were taken, false if any of them is held by other scenarios, in which case none is taken
+     */
+    boolean tryAcquire(Needed needed) {
+        try {
+            // Timed tryAcquire doesn't barge ahead of threads waiting in acquire
+            if (!exclusive.tryAcquire(needed.exclusivePermits, 0, TimeUnit.NANOSECONDS)) {
+                return false;
+            }
+            for (int i = 0; i < needed.semaphores.size(); i++) {
+                if (!needed.semaphores.get(i).tryAcquire(0, TimeUnit.NANOSECONDS)) {
+                    for (int j = i - 1; j >= 0; j--) {
+                        needed.semaphores.get(j).release();
+                    }
+                    exclusive.release(needed.exclusivePermits);
+                    return false;
+                }
+            }
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CucumberException("Interrupted while taking tag locks", e);
+        }
+    }
+
+    /**
+     * Waits until all locks are taken
+     */
+    void acquire(Needed needed) {
+        try {
+            exclusive.acquire(needed.exclusivePermits);
+            for (Semaphore semaphore : needed.semaphores) {
+                semaphore.acquire();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CucumberException("Interrupted while waiting for tag locks", e);
+        }
+    }
+
+    void release(Needed needed) {
+        for (Semaphore semaphore : needed.semaphores) {
+            semaphore.release();
+        }
+        exclusive.release(needed.exclusivePermits);
+        synchronized (releaseMonitor) {
+            releases++;
+            releaseMonitor.notifyAll();
+        }
+    }
+
+    /**
+     * @return number of releases so far, to be passed to {@link #awaitRelease(long)}
+     */
+    long releaseCount() {
+        synchronized (releaseMonitor) {
+            return releases;
+        }
+    }
+
+    /**
+     * Waits until some scenario releases its locks
+     *
+     * @param seenReleases release count read before the failed attempt to take locks
+     */
+    void awaitRelease(long seenReleases) {
+        synchronized (releaseMonitor) {
+            try {
+                while (releases == seenReleases) {
+                    releaseMonitor.wait();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CucumberException("Interrupted while waiting for tag locks", e);
+            }
+        }
+    }
+
+    /**
+     * Locks wanted by scenarios ahead in the queue that couldn't take them. Later scenarios wanting any of them
+     * are held back, so that a waiting scenario is not overtaken until everything else has finished.
+     */
+    static final class Pending {
+        private boolean any;
+        private boolean exclusive;
+        private Set<Semaphore> semaphores;
+
+        /**
+         * @return true if the scenario has to wait for the scenarios ahead of it
+         */
+        boolean blocks(Needed needed) {
+            if (exclusive || (any && needed.exclusivePermits == ALL_PERMITS)) {
+                return true;
+            }
+            if (semaphores != null) {
+                for (Semaphore semaphore : needed.semaphores) {
+                    if (semaphores.contains(semaphore)) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+
+        void add(Needed needed) {
+            any = true;
+            exclusive |= needed.exclusivePermits == ALL_PERMITS;
+            if (!needed.semaphores.isEmpty()) {
+                if (semaphores == null) {
+                    semaphores = new HashSet<>();
+                }
+                semaphores.addAll(needed.semaphores);
+            }
+        }
+    }
+
+    /**
+     * Locks of a single scenario
+     */
+    static final class Needed {
+        private final int exclusivePermits;
+        private final List<Semaphore> semaphores;
+
+        private Needed(int exclusivePermits, List<Semaphore> semaphores) {
+            this.exclusivePermits = exclusivePermits;
+            this.semaphores = semaphores;
+        }
+
+        /**
+         * @return false if the scenario has no lock tag, it then only waits for {@code @exclusive} scenarios
+         */
+        boolean isLocking() {
+            return exclusivePermits == ALL_PERMITS || !semaphores.isEmpty();
+        }
+    }
+}
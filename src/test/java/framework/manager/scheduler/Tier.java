@@ -0,0 +1,25 @@
+package test.java.framework.manager.scheduler;
+
+import gherkin.formatter.model.Tag;
+
+import java.util.Collection;
+
+/**
+ * Kind of thread a scenario needs. Browser threads are limited by the browser/session pool,
+ * scenarios tagged {@code @no-driver} only talk HTTP and can run on the much larger API tier, see {@link ApiTier}.
+ */
+public enum Tier {
+    BROWSER,
+    API;
+
+    static final String NO_DRIVER = "@no-driver";
+
+    static Tier of(Collection<Tag> tags) {
+        for (Tag tag : tags) {
+            if (NO_DRIVER.equals(tag.getName())) {
+                return API;
+            }
+        }
+        return BROWSER;
+    }
+}